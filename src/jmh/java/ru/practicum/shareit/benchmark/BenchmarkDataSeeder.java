@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingPhase;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет H2 синтетическими данными для бенчмарков.
+ * Идентификаторы назначаются явно и последовательно, поэтому пользователь с id=1 всегда владеет первыми вещами,
+ * а выборки бенчмарков воспроизводимы между запусками при одинаковых объёмах.
+ */
+class BenchmarkDataSeeder {
+
+    static final String[] VOCABULARY = {
+            "дрель", "перфоратор", "шуруповерт", "лестница", "палатка", "велосипед", "пила", "рюкзак",
+            "drill", "ladder", "tent", "bike", "saw", "hammer", "projector", "kayak"
+    };
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String BOOKING_INSERT =
+            "INSERT INTO booking (id, item_id, owner_id, booker_id, start_date, end_date, status, phase) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    BenchmarkDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void seed(int users, int itemsPerUser, int bookingsPerItem, int commentsPerItem) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (long userId = 1; userId <= users; userId++) {
+            rows.add(new Object[]{userId, "User " + userId, "user" + userId + "@example.com"});
+        }
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+
+        long itemCount = (long) users * itemsPerUser;
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            long ownerId = (itemId - 1) / itemsPerUser + 1;
+            rows.add(new Object[]{itemId, ownerId, word() + " " + itemId,
+                    word() + " " + word() + " " + word(), random.nextInt(10) != 0});
+        }
+        insert("INSERT INTO item (id, owner_id, name, description, available) VALUES (?, ?, ?, ?, ?)", rows);
+
+        long bookingId = 1;
+        long commentId = 1;
+        List<Object[]> comments = new ArrayList<>();
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            long ownerId = (itemId - 1) / itemsPerUser + 1;
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = now.plusDays(3L * (i - bookingsPerItem / 2));
+                rows.add(new Object[]{bookingId++, itemId, ownerId, booker(ownerId, users), Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusDays(2)), status(),
+                        BookingPhase.of(start, start.plusDays(2), now).name()});
+            }
+            for (int i = 0; i < commentsPerItem; i++) {
+                comments.add(new Object[]{commentId++, booker(ownerId, users), itemId,
+                        "Отзыв о вещи " + itemId, Timestamp.valueOf(now.minusDays(i))});
+            }
+            if (rows.size() >= BATCH_SIZE) {
+                insert(BOOKING_INSERT, rows);
+            }
+        }
+        insert(BOOKING_INSERT, rows);
+        insert("INSERT INTO comment (id, user_id, item_id, description, created) VALUES (?, ?, ?, ?, ?)", comments);
+
+        restartSequence("users_seq", users + 1L);
+        restartSequence("item_seq", itemCount + 1);
+        restartSequence("booking_seq", bookingId);
+        restartSequence("comment_seq", commentId);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        rows.clear();
+    }
+
+    /**
+     * Pooled-оптимизатор Hibernate считает значение последовательности верхней границей выделенного блока,
+     * поэтому для выдачи идентификаторов начиная с next последовательность сдвигается на размер блока.
+     */
+    private void restartSequence(String sequence, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (next + ID_ALLOCATION_SIZE - 1));
+    }
+
+    private String word() {
+        return VOCABULARY[random.nextInt(VOCABULARY.length)];
+    }
+
+    private long booker(long ownerId, int users) {
+        long bookerId = random.nextInt(users) + 1;
+        return bookerId == ownerId ? bookerId % users + 1 : bookerId;
+    }
+
+    private String status() {
+        int roll = random.nextInt(10);
+        if (roll < 7) {
+            return "APPROVED";
+        }
+        return roll < 9 ? "WAITING" : "REJECTED";
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.util.List;
+
+/**
+ * Списки бронирований: эквиваленты GET /bookings и GET /bookings/owner.
+ * Страница по смещению берётся из середины выборки, страница по курсору продолжает её.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private ShareItState state;
+    private BookingController controller;
+    private int middleOffset;
+    private String middleCursor;
+
+    @Setup
+    public void setUp(ShareItState state) {
+        this.state = state;
+        controller = state.getBean(BookingController.class);
+        middleOffset = state.itemsPerUser * state.bookingsPerItem / 2;
+        middleCursor = state.inRequest(() -> controller.getOwnerBookings(ShareItState.OWNER_ID,
+                "ALL", middleOffset - PAGE_SIZE, PAGE_SIZE, null).join()).getHeaders().getFirst("X-Next-Cursor");
+    }
+
+    @Benchmark
+    public ResponseEntity<List<BookingResponseDto>> ownerBookingsFirstPage() {
+        return state.inRequest(() -> controller.getOwnerBookings(ShareItState.OWNER_ID,
+                "ALL", 0, PAGE_SIZE, null).join());
+    }
+
+    @Benchmark
+    public ResponseEntity<List<BookingResponseDto>> ownerBookingsByOffset() {
+        return state.inRequest(() -> controller.getOwnerBookings(ShareItState.OWNER_ID,
+                "ALL", middleOffset, PAGE_SIZE, null).join());
+    }
+
+    @Benchmark
+    public ResponseEntity<List<BookingResponseDto>> ownerBookingsByCursor() {
+        return state.inRequest(() -> controller.getOwnerBookings(ShareItState.OWNER_ID,
+                "ALL", 0, PAGE_SIZE, middleCursor).join());
+    }
+
+    @Benchmark
+    public ResponseEntity<List<BookingResponseDto>> ownerFutureBookings() {
+        return state.inRequest(() -> controller.getOwnerBookings(ShareItState.OWNER_ID,
+                "FUTURE", 0, PAGE_SIZE, null).join());
+    }
+
+    @Benchmark
+    public ResponseEntity<List<BookingResponseDto>> userBookings() {
+        return state.inRequest(() -> controller.getUserBookings(ShareItState.OWNER_ID,
+                "ALL", 0, PAGE_SIZE, null).join());
+    }
+}
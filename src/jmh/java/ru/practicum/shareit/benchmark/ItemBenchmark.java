@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Вещи: эквиваленты GET /items, GET /items/{itemId} и GET /items/search.
+ * Поиск прогоняется по нескольким запросам: точное слово, префикс и два терма.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private ShareItState state;
+    private ItemController controller;
+
+    @Setup
+    public void setUp(ShareItState state) {
+        this.state = state;
+        controller = state.getBean(ItemController.class);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> ownerItems() {
+        return state.inRequest(() -> controller.getAllItems(ShareItState.OWNER_ID, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public ResponseEntity<ItemDto> itemByOwner() {
+        return state.inRequest(() -> controller.getItem(ShareItState.OWNER_ID, ShareItState.OWNER_ID,
+                ShareItState.unconditionalGet()));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> search(Query query) {
+        return state.inRequest(() -> controller.searchItemsByText(query.text, 0, PAGE_SIZE).join());
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"дрель", "lad", "палатка tent"})
+        public String text;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ExtendedItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.ExtendedItem;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Преобразование уже загруженных сущностей в DTO без обращения к БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private List<BookingView> bookings;
+    private List<ExtendedItem> items;
+
+    @Setup
+    public void setUp(ShareItState state) {
+        bookingMapper = state.getBean(BookingMapper.class);
+        itemMapper = state.getBean(ItemMapper.class);
+        bookings = state.getBean(BookingService.class).getOwnerBookings(ShareItState.OWNER_ID, "ALL", 0, PAGE_SIZE);
+        ItemService itemService = state.getBean(ItemService.class);
+        items = itemService.getExtendedItems(
+                itemService.getItemsByOwner(ShareItState.OWNER_ID, 0, PAGE_SIZE), ShareItState.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingsToResponseDto() {
+        return bookings.stream().map(bookingMapper::toResponseDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ExtendedItemDto> itemsToExtendedDto() {
+        return items.stream().map(itemMapper::toExtendedDto).collect(Collectors.toList());
+    }
+}
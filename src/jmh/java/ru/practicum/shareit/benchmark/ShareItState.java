@@ -0,0 +1,115 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.ShareItApp;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+/**
+ * Контекст приложения поверх H2, заполненный данными заданного объёма.
+ * Объёмы задаются параметрами JMH, например {@code -p users=1000 -p bookingsPerItem=50}.
+ * Поднимается один раз на форк и разделяется всеми потоками бенчмарка.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+
+    static final long OWNER_ID = 1L;
+
+    @Param("100")
+    public int users;
+
+    @Param("10")
+    public int itemsPerUser;
+
+    @Param("20")
+    public int bookingsPerItem;
+
+    @Param("2")
+    public int commentsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        context = builder.run();
+        new BenchmarkDataSeeder(context.getBean(JdbcTemplate.class))
+                .seed(users, itemsPerUser, bookingsPerItem, commentsPerItem);
+        // индексы в памяти прогреваются по ApplicationReadyEvent, который пришёл ещё до заполнения БД
+        context.publishEvent(new ApplicationReadyEvent(builder.application(), new String[0], context, Duration.ZERO));
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Выполняет вызов контроллера так же, как при обработке HTTP-запроса:
+     * с открытым на время вызова EntityManager (open-in-view), но без транзакции.
+     */
+    <T> T inRequest(Supplier<T> call) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return call.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+
+    /**
+     * GET-запрос без заголовков If-None-Match и If-Modified-Since: условные эндпоинты всегда отдают тело.
+     */
+    static WebRequest unconditionalGet() {
+        HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(
+                ShareItState.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMethod":
+                            return "GET";
+                        case "getHeaders":
+                            return Collections.emptyEnumeration();
+                        default:
+                            return null;
+                    }
+                });
+        return new ServletWebRequest(request);
+    }
+}
@@ -1,20 +1,39 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.service.BookingExport;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.executor.TimeLimitedTasks;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,13 +42,29 @@ import java.util.stream.Collectors;
 @Validated
 public class BookingController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService service;
     private final BookingMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor bookingExecutor;
+    private final AsyncTaskExecutor streamExecutor;
+    private final Duration bookingTimeout;
+    private final Duration exportTimeout;
 
     @Autowired
-    public BookingController(BookingService service, BookingMapper mapper) {
+    public BookingController(BookingService service, BookingMapper mapper, ObjectMapper objectMapper,
+                             @Qualifier("bookingExecutor") AsyncTaskExecutor bookingExecutor,
+                             @Qualifier("applicationTaskExecutor") AsyncTaskExecutor streamExecutor,
+                             @Value("${shareit.executor.booking.timeout}") Duration bookingTimeout,
+                             @Value("${shareit.booking.export-timeout}") Duration exportTimeout) {
         this.service = service;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.bookingExecutor = bookingExecutor;
+        this.streamExecutor = streamExecutor;
+        this.bookingTimeout = bookingTimeout;
+        this.exportTimeout = exportTimeout;
     }
 
     /**
@@ -54,6 +89,28 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(bookingToTransfer);
     }
 
+    /**
+     * Пакетное создание бронирований.
+     * Endpoint: POST /bookings/batch
+     * Принимает список объектов {@link BookingRequestDto} и создаёт все бронирования одной транзакцией:
+     * при ошибке в любом из них не создаётся ни одно.
+     *
+     * @param bookingDtos список объектов {@link BookingRequestDto}, не более 1000 за запрос
+     * @param bookerId    идентификатор пользователя, создающего бронирования, передается в заголовке X-Sharer-User-Id
+     * @return {@link ResponseEntity} содержащий список созданных {@link BookingResponseDto} в порядке запроса и статус ответа {@link HttpStatus#CREATED}
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingResponseDto>> createBookings(
+            @RequestBody @Size(min = 1, max = 1000) List<@Valid BookingRequestDto> bookingDtos,
+            @RequestHeader("X-Sharer-User-Id") Long bookerId
+    ) {
+        var newBookings = bookingDtos.stream().map(mapper::toBooking).collect(Collectors.toList());
+        var bookings = service.createAll(bookerId, newBookings);
+        log.info("{} bookings for user with ID {} have been successfully created", bookings.size(), bookerId);
+        var bookingsToTransfer = bookings.stream().map(mapper::toResponseDto).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookingsToTransfer);
+    }
+
     /**
      * Обновление статуса бронирования.
      * Endpoint: PATCH /bookings/{bookingId}
@@ -76,6 +133,30 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.OK).body(bookingToTransfer);
     }
 
+    /**
+     * Пакетное обновление статуса бронирований.
+     * Endpoint: PATCH /bookings/status?approved={approved}
+     * Позволяет владельцу вещей подтвердить или отклонить сразу несколько бронирований.
+     * Бронирования, которые не удалось обработать, не прерывают пакет: для каждого идентификатора
+     * возвращается отдельный результат.
+     *
+     * @param ownerId    идентификатор владельца вещей, передается в заголовке X-Sharer-User-Id
+     * @param bookingIds список идентификаторов бронирований, не более 1000 за запрос
+     * @param approved   параметр, указывающий, одобрены ли бронирования
+     * @return {@link ResponseEntity} содержащий список {@link BookingDecisionDto} в порядке запроса и статус ответа {@link HttpStatus#OK}
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<List<BookingDecisionDto>> updateBookingStatuses(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestBody @Size(min = 1, max = 1000) List<@NotNull Long> bookingIds,
+            @RequestParam boolean approved
+    ) {
+        var decisions = service.updateStatuses(ownerId, bookingIds, approved);
+        log.info("Statuses of {} bookings for user with ID {} have been processed", decisions.size(), ownerId);
+        var decisionsToTransfer = decisions.stream().map(mapper::toDecisionDto).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.OK).body(decisionsToTransfer);
+    }
+
     /**
      * Получение информации о конкретном бронировании.
      * Endpoint: GET /bookings/{bookingId}
@@ -100,24 +181,34 @@ public class BookingController {
      * Получение списка бронирований пользователя.
      * Endpoint: GET /bookings
      * Возвращает список бронирований пользователя в зависимости от их статуса.
+     * Если передан курсор after, страница выбирается методом поиска по (start, id) и параметр from игнорируется.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor, если страница заполнена полностью.
+     * Выборка выполняется в пуле bookingExecutor; при его переполнении или если выборка не уложилась
+     * в shareit.executor.booking.timeout, возвращается {@link HttpStatus#SERVICE_UNAVAILABLE}.
      *
      * @param userId идентификатор пользователя, запрашивающего список бронирований, передается в заголовке X-Sharer-User-Id
      * @param state  состояние бронирований для фильтрации (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
      * @param offset смещение для постраничного вывода
      * @param limit  количество записей для постраничного вывода
+     * @param after  курсор последнего бронирования предыдущей страницы
      * @return {@link ResponseEntity} содержащий список объектов {@link BookingResponseDto} и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping
-    public ResponseEntity<List<BookingResponseDto>> getUserBookings(
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getUserBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) int offset,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit,
+            @RequestParam(required = false) String after
     ) {
-        var bookings = service.getUserBookings(userId, state, offset, limit);
-        log.info("Bookings for user with ID {} have been successfully fetched", userId);
-        var bookingsToTransfer = bookings.stream().map(mapper::toResponseDto).collect(Collectors.toList());
-        return ResponseEntity.status(HttpStatus.OK).body(bookingsToTransfer);
+        BookingCursor cursor = after == null ? null : BookingCursor.decode(after);
+        return TimeLimitedTasks.supplyAsync(bookingExecutor, bookingTimeout, () -> {
+            var bookings = cursor == null
+                    ? service.getUserBookings(userId, state, offset, limit)
+                    : service.getUserBookings(userId, state, cursor, limit);
+            log.info("Bookings for user with ID {} have been successfully fetched", userId);
+            return toPage(bookings, limit);
+        });
     }
 
     /**
@@ -125,22 +216,78 @@ public class BookingController {
      * Endpoint: GET /bookings/owner
      * Возвращает список бронирований для вещей, принадлежащих владельцу.
      *
+     * Поддерживает постраничный вывод по курсору after и выполняется в пуле bookingExecutor так же, как {@link #getUserBookings}.
+     *
      * @param ownerId идентификатор владельца, запрашивающего список бронирований, передается в заголовке X-Sharer-User-Id
      * @param state   состояние бронирований для фильтрации (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
      * @param offset  смещение для постраничного вывода
      * @param limit   количество записей для постраничного вывода
+     * @param after   курсор последнего бронирования предыдущей страницы
      * @return {@link ResponseEntity} содержащий список объектов {@link BookingResponseDto} и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping("/owner")
-    public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getOwnerBookings(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) int offset,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit,
+            @RequestParam(required = false) String after
+    ) {
+        BookingCursor cursor = after == null ? null : BookingCursor.decode(after);
+        return TimeLimitedTasks.supplyAsync(bookingExecutor, bookingTimeout, () -> {
+            var bookings = cursor == null
+                    ? service.getOwnerBookings(ownerId, state, offset, limit)
+                    : service.getOwnerBookings(ownerId, state, cursor, limit);
+            log.info("Bookings for owner with ID {} have been successfully fetched", ownerId);
+            return toPage(bookings, limit);
+        });
+    }
+
+    /**
+     * Выгрузка всей истории бронирований владельца.
+     * Endpoint: GET /bookings/owner/export
+     * Возвращает бронирования в формате NDJSON (по одному объекту {@link BookingResponseDto} в строке)
+     * от новых к старым. Ответ пишется по мере чтения курсора, поэтому расход памяти не зависит от числа записей.
+     * Выгрузка может идти долго, поэтому для неё действует собственный тайм-аут shareit.booking.export-timeout
+     * вместо общего spring.mvc.async.request-timeout. Выгрузка пишется в ограниченном пуле потоковых ответов;
+     * при его переполнении возвращается {@link HttpStatus#SERVICE_UNAVAILABLE}.
+     *
+     * @param ownerId  идентификатор владельца, передается в заголовке X-Sharer-User-Id
+     * @param state    состояние бронирований для фильтрации (ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED)
+     * @param response ответ, в который пишется выгрузка
+     * @return {@link WebAsyncTask}, пишущий выгрузку в ответ со статусом {@link HttpStatus#OK}
+     */
+    @GetMapping("/owner/export")
+    public WebAsyncTask<Void> exportOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam(defaultValue = "ALL") String state,
+            HttpServletResponse response
     ) {
-        var bookings = service.getOwnerBookings(ownerId, state, offset, limit);
-        log.info("Bookings for owner with ID {} have been successfully fetched", ownerId);
+        BookingExport export = service.exportOwnerBookings(ownerId, state);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), streamExecutor, () -> {
+            OutputStream outputStream = response.getOutputStream();
+            export.forEach(booking -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(mapper.toResponseDto(booking)));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            log.info("Bookings for owner with ID {} have been successfully exported", ownerId);
+            return null;
+        });
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toPage(List<BookingView> bookings, int limit) {
         var bookingsToTransfer = bookings.stream().map(mapper::toResponseDto).collect(Collectors.toList());
-        return ResponseEntity.status(HttpStatus.OK).body(bookingsToTransfer);
+        var response = ResponseEntity.status(HttpStatus.OK);
+        if (bookings.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(limit - 1)).encode());
+        }
+        return response.body(bookingsToTransfer);
     }
 }
@@ -5,6 +5,9 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecision;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingView;
 
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
@@ -22,7 +25,16 @@ public interface BookingMapper {
     @Mapping(source = "booker.id", target = "booker.id")
     BookingResponseDto toResponseDto(Booking booking);
 
+    @Mapping(source = "itemId", target = "item.id")
+    @Mapping(source = "itemName", target = "item.name")
+    @Mapping(source = "bookerId", target = "booker.id")
+    BookingResponseDto toResponseDto(BookingView booking);
+
     @Mapping(source = "booker.id", target = "bookerId")
     BookingShortDto toShortDto(Booking booking);
 
+    BookingShortDto toShortDto(BookingSnapshot booking);
+
+    BookingDecisionDto toDecisionDto(BookingDecision decision);
+
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+/**
+ * Результат пакетного подтверждения или отклонения для одного бронирования.
+ * Статус - текущий статус бронирования после обработки, для ненайденных бронирований отсутствует.
+ */
+@Value
+public class BookingDecision {
+    Long bookingId;
+    Outcome outcome;
+    BookingStatus status;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        ALREADY_DECIDED,
+        OVERLAPS,
+        CONFLICT
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фаза бронирования относительно текущего времени. В отличие от {@link BookingStatus} меняется
+ * только с течением времени: FUTURE до начала включительно, CURRENT до окончания, затем PAST.
+ * Бронирование, начинающееся ровно в текущий момент, ещё не считается текущим, как и в выборке CURRENT.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!start.isBefore(now)) {
+            return FUTURE;
+        }
+        return end.isAfter(now) ? CURRENT : PAST;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+/**
+ * Снимок подтверждённого бронирования в сводке по вещи: ровно то, что показывается владельцу вещи.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSnapshot {
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    public static BookingSnapshot of(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingSnapshot(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+    }
+}
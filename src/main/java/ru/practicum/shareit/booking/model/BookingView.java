@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция бронирования для списков: только поля, которые попадают в ответ.
+ * Выбирается конструктором прямо в запросе, поэтому не попадает в контекст персистентности
+ * и не тянет за собой вещь и пользователя целиком.
+ */
+@Value
+public class BookingView {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    Long itemId;
+    String itemName;
+    Long bookerId;
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Предвычисленные последнее и следующее подтверждённые бронирования вещи.
+ * Последнее - с наибольшим началом не позже момента расчёта, следующее - с наименьшим началом после него.
+ * Сводка устаревает, когда наступает начало следующего бронирования, см. {@link #isDue(LocalDateTime)}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "id", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_start_date")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_end_date"))
+    })
+    private BookingSnapshot lastBooking;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "id", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_start_date")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_end_date"))
+    })
+    private BookingSnapshot nextBooking;
+
+    @Version
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public boolean isDue(LocalDateTime now) {
+        return nextBooking != null && !nextBooking.getStart().isAfter(now);
+    }
+
+    /**
+     * Учитывает только что подтверждённое бронирование без пересчёта по таблице booking.
+     * Последним считается бронирование, начавшееся строго раньше {@code now}; начинающееся ровно сейчас
+     * становится следующим, и сводка сразу оказывается к пересчёту.
+     */
+    public void apply(BookingSnapshot booking, LocalDateTime now) {
+        if (booking.getStart().isBefore(now)) {
+            if (lastBooking == null || booking.getStart().isAfter(lastBooking.getStart())) {
+                lastBooking = booking;
+            }
+        } else if (nextBooking == null || booking.getStart().isBefore(nextBooking.getStart())) {
+            nextBooking = booking;
+        }
+    }
+}
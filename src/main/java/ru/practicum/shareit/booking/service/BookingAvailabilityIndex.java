@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятости вещей по подтверждённым бронированиям.
+ * Для каждой вещи хранит отсортированные непересекающиеся интервалы занятости [start, end),
+ * что позволяет проверять свободность периода и искать ближайшее окно за O(log n) без обращения к БД.
+ * Прогревается из таблицы booking при старте приложения.
+ */
+@Component
+@Slf4j
+public class BookingAvailabilityIndex {
+
+    private final BookingJpaRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingAvailabilityIndex(BookingJpaRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<BookingInterval> intervals = bookingRepository.findApprovedIntervalsEndingAfter(LocalDateTime.now());
+        timelines.clear();
+        intervals.forEach(this::add);
+        log.info("Booking availability index is warmed up with {} approved bookings", intervals.size());
+    }
+
+    /**
+     * Добавляет интервал и вытесняет уже закончившиеся интервалы вещи.
+     * Если у вещи не осталось интервалов, её шкала удаляется из индекса.
+     */
+    public void add(BookingInterval interval) {
+        timelines.compute(interval.getItemId(), (itemId, timeline) -> {
+            ItemTimeline updated = timeline == null ? new ItemTimeline() : timeline;
+            updated.add(interval, LocalDateTime.now());
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || timeline.isFree(start, end);
+    }
+
+    public LocalDateTime nextFreeSlot(Long itemId, LocalDateTime from, Duration duration) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? from : timeline.nextFreeSlot(from, duration);
+    }
+
+    int size() {
+        return timelines.size();
+    }
+
+    static class ItemTimeline {
+        private final NavigableMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+
+        synchronized void add(BookingInterval interval, LocalDateTime now) {
+            merge(interval.getStart(), interval.getEnd());
+            evictEndedBefore(now);
+        }
+
+        synchronized boolean isEmpty() {
+            return busy.isEmpty();
+        }
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = busy.lowerEntry(end);
+            return candidate == null || !candidate.getValue().isAfter(start);
+        }
+
+        synchronized LocalDateTime nextFreeSlot(LocalDateTime from, Duration duration) {
+            LocalDateTime candidate = from;
+            Map.Entry<LocalDateTime, LocalDateTime> covering = busy.floorEntry(candidate);
+            if (covering != null && covering.getValue().isAfter(candidate)) {
+                candidate = covering.getValue();
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> next = busy.ceilingEntry(candidate);
+            while (next != null && next.getKey().isBefore(candidate.plus(duration))) {
+                candidate = next.getValue();
+                next = busy.ceilingEntry(candidate);
+            }
+            return candidate;
+        }
+
+        private void merge(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime mergedStart = start;
+            LocalDateTime mergedEnd = end;
+            Map.Entry<LocalDateTime, LocalDateTime> floor = busy.floorEntry(start);
+            if (floor != null && !floor.getValue().isBefore(start)) {
+                mergedStart = floor.getKey();
+                mergedEnd = max(mergedEnd, floor.getValue());
+            }
+            Iterator<Map.Entry<LocalDateTime, LocalDateTime>> overlapping =
+                    busy.tailMap(mergedStart, true).entrySet().iterator();
+            while (overlapping.hasNext()) {
+                Map.Entry<LocalDateTime, LocalDateTime> entry = overlapping.next();
+                if (entry.getKey().isAfter(mergedEnd)) {
+                    break;
+                }
+                mergedEnd = max(mergedEnd, entry.getValue());
+                overlapping.remove();
+            }
+            busy.put(mergedStart, mergedEnd);
+        }
+
+        private void evictEndedBefore(LocalDateTime now) {
+            Iterator<Map.Entry<LocalDateTime, LocalDateTime>> blocks = busy.entrySet().iterator();
+            while (blocks.hasNext() && blocks.next().getValue().isBefore(now)) {
+                blocks.remove();
+            }
+        }
+
+        private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+            return first.isAfter(second) ? first : second;
+        }
+    }
+}
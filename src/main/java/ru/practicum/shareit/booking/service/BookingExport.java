@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.util.function.Consumer;
+
+/**
+ * Отложенная выгрузка бронирований. Параметры проверяются при её создании,
+ * а выборка выполняется курсором в отдельной транзакции только при вызове {@link #forEach(Consumer)},
+ * поэтому выгрузку можно передать потоку, который пишет ответ.
+ */
+@FunctionalInterface
+public interface BookingExport {
+
+    void forEach(Consumer<BookingView> action);
+}
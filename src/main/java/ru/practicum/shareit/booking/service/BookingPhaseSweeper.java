@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сдвигает хранимую фазу бронирований {@link BookingPhase} с течением времени.
+ * Очередь переходов - индексы (phase, start_date) и (phase, end_date): сдвиг выполняется двумя массовыми UPDATE
+ * по диапазону индекса. Сдвиг выполняется только планировщиком; выборки по фазе не ждут его
+ * и сами досчитывают просроченные бронирования условием по времени.
+ */
+@Service
+@Slf4j
+public class BookingPhaseSweeper {
+
+    private final BookingJpaRepository bookingRepository;
+    private final TransactionTemplate sweepTransaction;
+
+    @Autowired
+    public BookingPhaseSweeper(BookingJpaRepository bookingRepository, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.sweepTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.sweep-interval}")
+    public void sweep() {
+        sweep(LocalDateTime.now());
+    }
+
+    void sweep(LocalDateTime now) {
+        sweepTransaction.executeWithoutResult(status -> {
+            int past = bookingRepository.markEndedAsPast(now);
+            int current = bookingRepository.markStartedAsCurrent(now);
+            if (past + current > 0) {
+                log.debug("Booking phases are advanced: {} to PAST, {} to CURRENT", past, current);
+            }
+        });
+    }
+}
@@ -2,28 +2,41 @@ package ru.practicum.shareit.booking.service;
 
 
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingDecision;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 public interface BookingService {
     Booking create(Long userId, Booking bookingDto);
 
+    List<Booking> createAll(Long userId, List<Booking> bookings);
+
     Booking updateStatus(Long ownerId, Long bookingId, boolean approved);
 
+    List<BookingDecision> updateStatuses(Long ownerId, List<Long> bookingIds, boolean approved);
+
     Booking getOwnersBookingById(Long userId, Long bookingId);
 
-    List<Booking> getUserBookings(Long userId, String state, int offset, int limit);
+    List<BookingView> getUserBookings(Long userId, String state, int offset, int limit);
+
+    List<BookingView> getUserBookings(Long userId, String state, BookingCursor after, int limit);
 
-    List<Booking> getOwnerBookings(Long ownerId, String state, int offset, int limit);
+    List<BookingView> getOwnerBookings(Long ownerId, String state, int offset, int limit);
+
+    List<BookingView> getOwnerBookings(Long ownerId, String state, BookingCursor after, int limit);
+
+    BookingExport exportOwnerBookings(Long ownerId, String state);
 
     List<Booking> getItemBookings(Long ownerId, String state, int offset, int limit);
 
     boolean isUserBookedItem(Long userId, Long itemId);
 
-    Optional<Booking> getLastBooking(Long itemId, Long userId);
-
-    Optional<Booking> getNextBooking(Long itemId, Long userId);
+    Map<Long, ItemBookingSummary> getBookingSummaries(Collection<Long> itemIds);
 
     Booking getBookingById(Long bookingId);
 }
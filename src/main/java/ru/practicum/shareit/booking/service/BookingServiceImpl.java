@@ -2,47 +2,100 @@ package ru.practicum.shareit.booking.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingDecision;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.storage.BookingJpaRepository;
 import ru.practicum.shareit.booking.storage.BookingSpecification;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.util.Transactions;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final BookingJpaRepository bookingRepository;
     private final ItemServiceImpl itemService;
     private final UserServiceImpl userService;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingSummaryService summaryService;
+    private final TransactionTemplate exportTransaction;
 
     @Autowired
     public BookingServiceImpl(BookingJpaRepository bookingRepository, ItemServiceImpl itemService,
-                              @Lazy UserServiceImpl userService) {
+                              @Lazy UserServiceImpl userService, BookingAvailabilityIndex availabilityIndex,
+                              BookingSummaryService summaryService, PlatformTransactionManager transactionManager) {
         this.bookingRepository = bookingRepository;
         this.itemService = itemService;
         this.userService = userService;
+        this.availabilityIndex = availabilityIndex;
+        this.summaryService = summaryService;
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
     }
 
     @Transactional
     @Override
     public Booking create(Long userId, Booking booking) {
         validateUserAndItem(userId, booking);
+        validateAvailability(booking);
         booking.setBooker(userService.getById(userId));
+        booking.setOwnerId(booking.getItem().getOwnerId());
         booking.setStatus(BookingStatus.WAITING);
         return bookingRepository.save(booking);
     }
 
+    @Transactional
+    @Override
+    public List<Booking> createAll(Long userId, List<Booking> bookings) {
+        User booker = userService.getById(userId);
+        for (Booking booking : bookings) {
+            validateUserAndItem(userId, booking);
+            validateAvailability(booking);
+            booking.setBooker(booker);
+            booking.setOwnerId(booking.getItem().getOwnerId());
+            booking.setStatus(BookingStatus.WAITING);
+        }
+        return bookingRepository.saveAll(bookings);
+    }
+
+    /**
+     * Статус меняется условным UPDATE с проверкой WAITING в самой БД, а не записью прочитанной сущности,
+     * поэтому из двух параллельных решений по одному бронированию применяется только одно,
+     * а проигравшее получает {@link ConflictException}. Уже решённое или отменённое бронирование отклоняется
+     * до UPDATE как некорректный запрос. После UPDATE бронирование перечитывается, чтобы вернуть статус
+     * и версию, записанные в БД.
+     */
     @Transactional
     @Override
     public Booking updateStatus(Long ownerId, Long bookingId, boolean approved) {
@@ -51,13 +104,131 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwnerId().equals(ownerId)) {
             throw new NotFoundException("User is not the owner of the item");
         }
-        if (booking.getStatus() == BookingStatus.APPROVED || booking.getStatus() == BookingStatus.REJECTED) {
+        if (booking.getStatus() != BookingStatus.WAITING) {
             throw new IllegalArgumentException("Booking status already decided");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return booking;
+        if (approved) {
+            validateNoApprovedOverlap(booking);
+        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+            throw new ConflictException("Booking status has been changed concurrently");
+        }
+        Booking updated = getBookingById(bookingId);
+        if (approved) {
+            BookingInterval interval = BookingInterval.of(updated);
+            Transactions.afterCommit(() -> availabilityIndex.add(interval));
+            summaryService.onApproved(updated);
+        }
+        return updated;
     }
 
+    /**
+     * Пакетный вариант {@link #updateStatus(Long, Long, boolean)}. Бронирования выбираются одним запросом
+     * сразу с проверкой владельца, пересечения с подтверждёнными бронированиями проверяются по одной выборке
+     * интервалов, статус меняется одним условным UPDATE. Ошибки не прерывают пакет, а возвращаются
+     * в результате по каждому бронированию в порядке запроса.
+     */
+    @Transactional
+    @Override
+    public List<BookingDecision> updateStatuses(Long ownerId, List<Long> bookingIds, boolean approved) {
+        userService.validate(ownerId);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInAndOwnerId(bookingIds, ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, BookingDecision.Outcome> outcomes = new LinkedHashMap<>();
+        List<Booking> candidates = new ArrayList<>();
+        for (Long bookingId : new LinkedHashSet<>(bookingIds)) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                outcomes.put(bookingId, BookingDecision.Outcome.NOT_FOUND);
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                outcomes.put(bookingId, BookingDecision.Outcome.ALREADY_DECIDED);
+            } else {
+                outcomes.put(bookingId, BookingDecision.Outcome.UPDATED);
+                candidates.add(booking);
+            }
+        }
+        if (approved) {
+            candidates = withoutApprovedOverlaps(candidates, outcomes);
+        }
+        List<Booking> updated = applyStatus(candidates, approved ? BookingStatus.APPROVED : BookingStatus.REJECTED,
+                bookings, outcomes);
+        if (approved && !updated.isEmpty()) {
+            List<BookingInterval> intervals = updated.stream().map(BookingInterval::of).collect(Collectors.toList());
+            Transactions.afterCommit(() -> intervals.forEach(availabilityIndex::add));
+            summaryService.onApproved(updated);
+        }
+        return outcomes.entrySet().stream()
+                .map(outcome -> {
+                    Booking booking = bookings.get(outcome.getKey());
+                    return new BookingDecision(outcome.getKey(), outcome.getValue(),
+                            booking == null ? null : booking.getStatus());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Отсеивает бронирования, пересекающиеся с уже подтверждёнными или с подтверждаемыми раньше в этом же пакете.
+     */
+    private List<Booking> withoutApprovedOverlaps(List<Booking> candidates,
+                                                  Map<Long, BookingDecision.Outcome> outcomes) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        List<Long> itemIds = candidates.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .collect(Collectors.toList());
+        LocalDateTime start = candidates.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime end = candidates.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<BookingInterval>> busy = bookingRepository.findApprovedIntervals(itemIds, start, end).stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId, Collectors.toCollection(ArrayList::new)));
+        List<Booking> accepted = new ArrayList<>();
+        for (Booking booking : candidates) {
+            List<BookingInterval> itemBusy = busy.computeIfAbsent(booking.getItem().getId(), itemId -> new ArrayList<>());
+            boolean overlaps = itemBusy.stream().anyMatch(interval -> interval.getStart().isBefore(booking.getEnd())
+                    && interval.getEnd().isAfter(booking.getStart()));
+            if (overlaps) {
+                outcomes.put(booking.getId(), BookingDecision.Outcome.OVERLAPS);
+            } else {
+                itemBusy.add(BookingInterval.of(booking));
+                accepted.add(booking);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Меняет статус одним UPDATE и перечитывает бронирования, заменяя ими прочитанные до UPDATE в {@code bookings}.
+     * Бронирования, которые параллельно изменил другой запрос, помечаются как конфликтные.
+     *
+     * @return бронирования, статус которых изменён этим вызовом
+     */
+    private List<Booking> applyStatus(List<Booking> candidates, BookingStatus status, Map<Long, Booking> bookings,
+                                      Map<Long, BookingDecision.Outcome> outcomes) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        List<Long> candidateIds = candidates.stream().map(Booking::getId).collect(Collectors.toList());
+        bookingRepository.updateStatusesIfWaiting(candidateIds, status);
+        Map<Long, Booking> stored = bookingRepository.findAllById(candidateIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> updated = new ArrayList<>();
+        for (Booking booking : candidates) {
+            Booking current = stored.get(booking.getId());
+            if (current == null) {
+                outcomes.put(booking.getId(), BookingDecision.Outcome.CONFLICT);
+                continue;
+            }
+            bookings.put(current.getId(), current);
+            if (current.getStatus() != status || current.getVersion() != booking.getVersion() + 1) {
+                outcomes.put(booking.getId(), BookingDecision.Outcome.CONFLICT);
+            } else {
+                updated.add(current);
+            }
+        }
+        return updated;
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -71,30 +242,61 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getUserBookings(Long userId, String state, int offset, int limit) {
+    public List<BookingView> getUserBookings(Long userId, String state, int offset, int limit) {
         userService.validate(userId);
-        PageRequest pageRequest = PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "start"));
         Specification<Booking> byBookerId = BookingSpecification.byBookerId(userId);
         Specification<Booking> bySortingSpec = createSpecification(state);
-        return bookingRepository.findAll(byBookerId.and(bySortingSpec), pageRequest).getContent();
+        return bookingRepository.findViews(byBookerId.and(bySortingSpec), NEWEST_FIRST, offset, limit);
     }
 
     @Override
-    public List<Booking> getOwnerBookings(Long ownerId, String state, int offset, int limit) {
+    public List<BookingView> getUserBookings(Long userId, String state, BookingCursor after, int limit) {
+        userService.validate(userId);
+        Specification<Booking> byBookerId = BookingSpecification.byBookerId(userId);
+        Specification<Booking> bySortingSpec = createSpecification(state);
+        Specification<Booking> afterCursor = BookingSpecification.before(after);
+        return bookingRepository.findViews(byBookerId.and(bySortingSpec).and(afterCursor), NEWEST_FIRST, 0, limit);
+    }
+
+    @Override
+    public List<BookingView> getOwnerBookings(Long ownerId, String state, int offset, int limit) {
         userService.validate(ownerId);
-        PageRequest pageRequest = PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "start"));
         Specification<Booking> byOwnerId = BookingSpecification.byOwnerId(ownerId);
         Specification<Booking> bySortingSpec = createSpecification(state);
-        return bookingRepository.findAll(byOwnerId.and(bySortingSpec), pageRequest).getContent();
+        return bookingRepository.findViews(byOwnerId.and(bySortingSpec), NEWEST_FIRST, offset, limit);
+    }
+
+    @Override
+    public List<BookingView> getOwnerBookings(Long ownerId, String state, BookingCursor after, int limit) {
+        userService.validate(ownerId);
+        Specification<Booking> byOwnerId = BookingSpecification.byOwnerId(ownerId);
+        Specification<Booking> bySortingSpec = createSpecification(state);
+        Specification<Booking> afterCursor = BookingSpecification.before(after);
+        return bookingRepository.findViews(byOwnerId.and(bySortingSpec).and(afterCursor), NEWEST_FIRST, 0, limit);
+    }
+
+    /**
+     * Выгрузка всех бронирований владельца от новых к старым с теми же фильтрами состояния, что и у списка.
+     * Строки читаются курсором по {@value #EXPORT_FETCH_SIZE} штук в транзакции только для чтения:
+     * PostgreSQL использует серверный курсор только при выключенном автокоммите.
+     */
+    @Override
+    public BookingExport exportOwnerBookings(Long ownerId, String state) {
+        userService.validate(ownerId);
+        Specification<Booking> spec = BookingSpecification.byOwnerId(ownerId).and(createSpecification(state));
+        return action -> exportTransaction.executeWithoutResult(status -> {
+            try (Stream<BookingView> bookings = bookingRepository.streamViews(spec, NEWEST_FIRST, EXPORT_FETCH_SIZE)) {
+                bookings.forEach(action);
+            }
+        });
     }
 
     @Override
     public List<Booking> getItemBookings(Long itemId, String state, int offset, int limit) {
         itemService.validate(itemId);
-        PageRequest pageRequest = PageRequest.of(offset / limit, limit, Sort.by(Sort.Direction.DESC, "start"));
         Specification<Booking> byItemId = BookingSpecification.byItemId(itemId);
         Specification<Booking> bySortingSpec = createSpecification(state);
-        return bookingRepository.findAll(byItemId.and(bySortingSpec), pageRequest).getContent();
+        return bookingRepository.findPage(byItemId.and(bySortingSpec), NEWEST_FIRST, offset, limit);
     }
 
     @Override
@@ -103,13 +305,8 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Optional<Booking> getLastBooking(Long itemId, Long userId) {
-        return bookingRepository.getLastBooking(itemId, userId, LocalDateTime.now());
-    }
-
-    @Override
-    public Optional<Booking> getNextBooking(Long itemId, Long userId) {
-        return bookingRepository.getNextBooking(itemId, userId, LocalDateTime.now());
+    public Map<Long, ItemBookingSummary> getBookingSummaries(Collection<Long> itemIds) {
+        return summaryService.getSummaries(itemIds);
     }
 
     private void validateUserAndItem(Long userId, Booking booking) {
@@ -124,6 +321,27 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void validateAvailability(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (!availabilityIndex.isFree(itemId, booking.getStart(), booking.getEnd())) {
+            Duration duration = Duration.between(booking.getStart(), booking.getEnd());
+            LocalDateTime nextFreeSlot = availabilityIndex.nextFreeSlot(itemId, booking.getStart(), duration);
+            throw new IllegalArgumentException("Item is already booked for the requested period, " +
+                    "next free slot starts at " + nextFreeSlot);
+        }
+    }
+
+    private void validateNoApprovedOverlap(Booking booking) {
+        boolean overlaps = bookingRepository
+                .findOverlappingBookings(booking.getItem().getId(), booking.getStart(), booking.getEnd())
+                .stream()
+                .anyMatch(other -> !other.getId().equals(booking.getId())
+                        && other.getStatus() == BookingStatus.APPROVED);
+        if (overlaps) {
+            throw new IllegalArgumentException("Booking overlaps an approved booking of the same item");
+        }
+    }
+
     @Override
     public Booking getBookingById(Long bookingId) {
         return bookingRepository.findById(bookingId)
@@ -134,11 +352,9 @@ public class BookingServiceImpl implements BookingService {
     private Specification<Booking> createSpecification(String state) {
         switch (state.toUpperCase()) {
             case "CURRENT":
-                return BookingSpecification.isCurrent();
             case "PAST":
-                return BookingSpecification.isPast();
             case "FUTURE":
-                return BookingSpecification.isFuture();
+                return BookingSpecification.hasPhase(BookingPhase.valueOf(state.toUpperCase()), LocalDateTime.now());
             case "WAITING":
             case "REJECTED":
             case "APPROVED":
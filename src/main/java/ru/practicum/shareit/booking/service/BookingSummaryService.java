@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryJpaRepository;
+import ru.practicum.shareit.item.storage.ItemJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает сводку {@link ItemBookingSummary} по последнему и следующему бронированию вещей.
+ * Подтверждение бронирования обновляет сводку в той же транзакции, а наступление начала следующего бронирования
+ * сдвигает её планировщиком. Сводки, которые планировщик ещё не сдвинул, пересчитываются при чтении в памяти
+ * и не сохраняются: чтение ничего не пишет.
+ * Все изменения сводки сначала блокируют строку вещи: строки сводки может ещё не быть, и без общей блокировки
+ * два параллельных подтверждения создали бы её дважды.
+ * Отсутствие сводки означает, что у вещи нет подтверждённых бронирований.
+ */
+@Service
+@Slf4j
+public class BookingSummaryService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryJpaRepository summaryRepository;
+    private final BookingJpaRepository bookingRepository;
+    private final ItemJpaRepository itemRepository;
+    private final TransactionTemplate refreshTransaction;
+
+    @Autowired
+    public BookingSummaryService(ItemBookingSummaryJpaRepository summaryRepository,
+                                 BookingJpaRepository bookingRepository,
+                                 ItemJpaRepository itemRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = byItemId(summaryRepository.findAllById(itemIds));
+        List<Long> dueItemIds = summaries.values().stream()
+                .filter(summary -> summary.isDue(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!dueItemIds.isEmpty()) {
+            summaries.putAll(recompute(dueItemIds, now, new HashMap<>()));
+        }
+        return summaries;
+    }
+
+    /**
+     * Учитывает подтверждённое бронирование. Вызывается в транзакции подтверждения,
+     * строка вещи блокируется до её завершения.
+     */
+    public void onApproved(Booking booking) {
+        onApproved(List.of(booking));
+    }
+
+    /**
+     * Пакетный вариант {@link #onApproved(Booking)}: строки всех затронутых вещей блокируются одним запросом.
+     */
+    public void onApproved(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = lockSummaries(itemIds);
+        bookings.forEach(booking -> summaries.computeIfAbsent(booking.getItem().getId(), ItemBookingSummary::new)
+                .apply(BookingSnapshot.of(booking), now));
+        summaryRepository.saveAll(summaries.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildMissing() {
+        LocalDateTime now = LocalDateTime.now();
+        int built = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = bookingRepository.findApprovedItemIdsWithoutSummary(PageRequest.of(0, BATCH_SIZE));
+            if (!itemIds.isEmpty()) {
+                refresh(itemIds, now);
+                built += itemIds.size();
+            }
+        } while (itemIds.size() == BATCH_SIZE);
+        log.info("Booking summaries are built for {} items", built);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-interval}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds;
+        do {
+            itemIds = summaryRepository.findDueItemIds(now, PageRequest.of(0, BATCH_SIZE));
+            if (!itemIds.isEmpty()) {
+                refresh(itemIds, now);
+                log.debug("Booking summaries are rolled forward for {} items", itemIds.size());
+            }
+        } while (itemIds.size() == BATCH_SIZE);
+    }
+
+    private void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        refreshTransaction.executeWithoutResult(status ->
+                summaryRepository.saveAll(recompute(itemIds, now, lockSummaries(itemIds)).values()));
+    }
+
+    private Map<Long, ItemBookingSummary> lockSummaries(Collection<Long> itemIds) {
+        itemRepository.findAllForUpdate(itemIds);
+        return byItemId(summaryRepository.findAllById(itemIds));
+    }
+
+    /**
+     * Пересчитывает сводки по таблице booking, дополняя summaries недостающими сводками.
+     */
+    private Map<Long, ItemBookingSummary> recompute(Collection<Long> itemIds, LocalDateTime now,
+                                                    Map<Long, ItemBookingSummary> summaries) {
+        Map<Long, Booking> lastBookings = groupByItemId(bookingRepository.getLastBookings(itemIds, now));
+        Map<Long, Booking> nextBookings = groupByItemId(bookingRepository.getNextBookings(itemIds, now));
+        itemIds.forEach(itemId -> {
+            ItemBookingSummary summary = summaries.computeIfAbsent(itemId, ItemBookingSummary::new);
+            summary.setLastBooking(BookingSnapshot.of(lastBookings.get(itemId)));
+            summary.setNextBooking(BookingSnapshot.of(nextBookings.get(itemId)));
+        });
+        return summaries;
+    }
+
+    private static Map<Long, ItemBookingSummary> byItemId(List<ItemBookingSummary> summaries) {
+        return summaries.stream().collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    private static Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first));
+    }
+}
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.booking.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface BookingJpaRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+public interface BookingJpaRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingQueryRepository {
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b " +
             "WHERE b.item.id = :itemId " +
@@ -21,32 +26,96 @@ public interface BookingJpaRepository extends JpaRepository<Booking, Long>, JpaS
     boolean haveUserBookedItem(Long bookerId, Long itemId, LocalDateTime currentTime);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.start = " +
+            "JOIN FETCH b.booker " +
+            "JOIN FETCH b.item " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.start = " +
             "(SELECT MAX(bb.start) FROM Booking bb " +
-            "   WHERE bb.item.id = :itemId " +
+            "   WHERE bb.item.id = b.item.id " +
             "   AND bb.status = 'APPROVED' " +
-            "   AND bb.item.ownerId = :userId " +
-            "   AND bb.start < :now)" +
-            "AND b.item.id = :itemId " +
-            "AND b.status = 'APPROVED' " +
-            "AND b.item.ownerId = :userId ")
-    Optional<Booking> getLastBooking(Long itemId, Long userId, LocalDateTime now);
+            "   AND bb.start < :now)")
+    List<Booking> getLastBookings(Collection<Long> itemIds, LocalDateTime now);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.start = " +
+            "JOIN FETCH b.booker " +
+            "JOIN FETCH b.item " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.start = " +
             "(SELECT MIN(bb.start) FROM Booking bb " +
-            "   WHERE  bb.item.id = :itemId " +
+            "   WHERE bb.item.id = b.item.id " +
             "   AND bb.status = 'APPROVED' " +
-            "   AND bb.item.ownerId = :userId " +
-            "   AND bb.start > :now )" +
-            "AND b.item.id = :itemId " +
-            "AND b.status = 'APPROVED' " +
-            "AND b.item.ownerId = :userId ")
-    Optional<Booking> getNextBooking(Long itemId, Long userId, LocalDateTime now);
+            "   AND bb.start > :now)")
+    List<Booking> getNextBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.status = 'APPROVED' " +
+            "AND NOT EXISTS (SELECT s FROM ItemBookingSummary s WHERE s.itemId = b.item.id)")
+    List<Long> findApprovedItemIdsWithoutSummary(Pageable pageable);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.item.id = :itemId " +
             "AND (b.start < :end AND b.end > :start)")
     List<Booking> findOverlappingBookings(Long itemId, LocalDateTime start, LocalDateTime end);
 
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.status = 'APPROVED' " +
+            "AND b.end > :now")
+    List<BookingInterval> findApprovedIntervalsEndingAfter(LocalDateTime now);
+
+    /**
+     * Переводит ожидающее бронирование в новый статус одним условным UPDATE (compare-and-set).
+     * Контекст персистентности очищается, так как загруженные в него бронирования становятся устаревшими.
+     *
+     * @return 1, если статус изменён, 0 - если бронирование уже не в статусе WAITING
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+            "SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId " +
+            "AND b.status = 'WAITING'")
+    int updateStatusIfWaiting(Long bookingId, BookingStatus status);
+
+    /**
+     * Пакетный вариант {@link #updateStatusIfWaiting(Long, BookingStatus)}: один UPDATE для всех бронирований.
+     *
+     * @return количество бронирований, статус которых изменён
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+            "SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = 'WAITING'")
+    int updateStatusesIfWaiting(Collection<Long> bookingIds, BookingStatus status);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.ownerId = :ownerId")
+    List<Booking> findAllByIdInAndOwnerId(Collection<Long> bookingIds, Long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = 'APPROVED' " +
+            "AND (b.start < :end AND b.end > :start)")
+    List<BookingInterval> findApprovedIntervals(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
+    @Modifying
+    @Query("UPDATE Booking b " +
+            "SET b.phase = 'PAST' " +
+            "WHERE b.phase IN ('FUTURE', 'CURRENT') " +
+            "AND b.end <= :now")
+    int markEndedAsPast(LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking b " +
+            "SET b.phase = 'CURRENT' " +
+            "WHERE b.phase = 'FUTURE' " +
+            "AND b.start < :now")
+    int markStartedAsCurrent(LocalDateTime now);
+
 }
\ No newline at end of file
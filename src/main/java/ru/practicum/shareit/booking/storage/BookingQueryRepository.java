@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Возвращает проекции {@link BookingView} бронирований, удовлетворяющих спецификации,
+     * начиная с {@code offset}, не более {@code limit} штук и без подсчёта общего количества.
+     */
+    List<BookingView> findViews(Specification<Booking> spec, Sort sort, long offset, int limit);
+
+    /**
+     * То же, что {@link #findViews}, но возвращает сами бронирования.
+     */
+    List<Booking> findPage(Specification<Booking> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Возвращает все проекции {@link BookingView} по спецификации серверным курсором с размером выборки
+     * {@code fetchSize}. Проекции не попадают в контекст персистентности, поэтому память не растёт с числом строк.
+     * Поток нужно читать в транзакции и закрыть после чтения.
+     */
+    Stream<BookingView> streamViews(Specification<Booking> spec, Sort sort, int fetchSize);
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findViews(Specification<Booking> spec, Sort sort, long offset, int limit) {
+        return createViewQuery(spec, sort)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Booking> findPage(Specification<Booking> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = criteriaBuilder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        query.select(root)
+                .where(spec.toPredicate(root, query, criteriaBuilder))
+                .orderBy(toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<BookingView> streamViews(Specification<Booking> spec, Sort sort, int fetchSize) {
+        return createViewQuery(spec, sort)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<BookingView> createViewQuery(Specification<Booking> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = criteriaBuilder.createQuery(BookingView.class);
+        Root<Booking> root = query.from(Booking.class);
+        query.select(criteriaBuilder.construct(BookingView.class,
+                        root.get("id"),
+                        root.get("start"),
+                        root.get("end"),
+                        root.get("status"),
+                        root.get("item").get("id"),
+                        root.get("item").get("name"),
+                        root.get("booker").get("id")))
+                .where(spec.toPredicate(root, query, criteriaBuilder))
+                .orderBy(toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+}
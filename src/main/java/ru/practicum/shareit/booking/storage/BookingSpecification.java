@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking.storage;
 
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import javax.persistence.criteria.CriteriaBuilder;
@@ -22,33 +24,35 @@ public class BookingSpecification {
         };
     }
 
-    public static Specification<Booking> isCurrent() {
+    /**
+     * Фаза на момент {@code now}. Хранимая фаза сдвигается планировщиком с задержкой, поэтому бронирования,
+     * переход которых уже наступил, но ещё не записан, отбираются дополнительным условием по времени.
+     */
+    public static Specification<Booking> hasPhase(BookingPhase phase, LocalDateTime now) {
         return (Root<Booking> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) -> {
-            LocalDateTime now = LocalDateTime.now();
-            return criteriaBuilder.and(
-                    criteriaBuilder.lessThan(root.get("start"), now),
-                    criteriaBuilder.greaterThan(root.get("end"), now)
-            );
-        };
-    }
-
-    public static Specification<Booking> isPast() {
-        return (Root<Booking> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) -> {
-            LocalDateTime now = LocalDateTime.now();
-            return criteriaBuilder.lessThan(root.get("end"), now);
-        };
-    }
-
-    public static Specification<Booking> isFuture() {
-        return (Root<Booking> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) -> {
-            LocalDateTime now = LocalDateTime.now();
-            return criteriaBuilder.greaterThan(root.get("start"), now);
+            switch (phase) {
+                case FUTURE:
+                    return criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("phase"), BookingPhase.FUTURE),
+                            criteriaBuilder.greaterThan(root.get("start"), now));
+                case CURRENT:
+                    return criteriaBuilder.and(
+                            root.get("phase").in(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                            criteriaBuilder.lessThan(root.get("start"), now),
+                            criteriaBuilder.greaterThan(root.get("end"), now));
+                default:
+                    return criteriaBuilder.or(
+                            criteriaBuilder.equal(root.get("phase"), BookingPhase.PAST),
+                            criteriaBuilder.and(
+                                    root.get("phase").in(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                                    criteriaBuilder.lessThanOrEqualTo(root.get("end"), now)));
+            }
         };
     }
 
     public static Specification<Booking> byOwnerId(Long ownerId) {
         return (Root<Booking> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) ->
-                criteriaBuilder.equal(root.get("item").get("ownerId"), ownerId);
+                criteriaBuilder.equal(root.get("ownerId"), ownerId);
     }
 
     public static Specification<Booking> byBookerId(Long bookerId) {
@@ -60,4 +64,15 @@ public class BookingSpecification {
         return (Root<Booking> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("item").get("id"), itemId);
     }
+
+    public static Specification<Booking> before(BookingCursor cursor) {
+        return (Root<Booking> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) ->
+                criteriaBuilder.or(
+                        criteriaBuilder.lessThan(root.get("start"), cursor.getStart()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("start"), cursor.getStart()),
+                                criteriaBuilder.lessThan(root.get("id"), cursor.getId())
+                        )
+                );
+    }
 }
\ No newline at end of file
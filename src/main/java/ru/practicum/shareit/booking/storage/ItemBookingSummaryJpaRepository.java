@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryJpaRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.nextBooking.start <= :now")
+    List<Long> findDueItemIds(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${shareit.cache.identity.maximum-size}")
+    private long maximumSize;
+
+    @Value("${shareit.cache.identity.ttl}")
+    private Duration ttl;
+
+    @Bean
+    public IdentityCache<User> userCache() {
+        return new IdentityCache<>("users", maximumSize, ttl, User::new);
+    }
+
+    @Bean
+    public IdentityCache<Item> itemCache() {
+        return new IdentityCache<>("items", maximumSize, ttl, Item::new);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ru.practicum.shareit.util.Transactions;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш сущностей по идентификатору.
+ * Хранит копии сущностей, отвязанные от контекста персистентности, поэтому изменения
+ * управляемых экземпляров не попадают в кэш в обход инвалидации.
+ * Запись в кэш откладывается до коммита транзакции, а инвалидация выполняется сразу и повторно после коммита,
+ * чтобы параллельный читатель не успел вернуть в кэш состояние до изменения.
+ *
+ * @param <T> тип сущности
+ */
+public class IdentityCache<T> implements MeterBinder {
+
+    private final String name;
+    private final Cache<Long, T> cache;
+    private final UnaryOperator<T> copier;
+
+    public IdentityCache(String name, long maximumSize, Duration ttl, UnaryOperator<T> copier) {
+        this.name = name;
+        this.copier = copier;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Возвращает копию сущности из кэша, а при промахе загружает её и кладёт в кэш копию после коммита текущей транзакции.
+     * Вызывающий может изменять возвращённый экземпляр, не затрагивая кэш.
+     *
+     * @param id     идентификатор сущности
+     * @param loader загрузка сущности из хранилища
+     * @return копия закэшированной или загруженная сущность
+     */
+    public Optional<T> get(Long id, Function<Long, Optional<T>> loader) {
+        T cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copier.apply(cached));
+        }
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> {
+            T copy = copier.apply(value);
+            Transactions.afterCommit(() -> cache.put(id, copy));
+        });
+        return loaded;
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        Transactions.afterCommit(() -> cache.invalidate(id));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.exception;
+
+public class ConflictException extends RuntimeException {
+
+    public ConflictException() {
+    }
+
+    public ConflictException(final String message) {
+        super(message);
+    }
+
+    public ConflictException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+
+    public ConflictException(final Throwable cause) {
+        super(cause);
+    }
+}
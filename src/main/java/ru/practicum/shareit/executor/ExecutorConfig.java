@@ -0,0 +1,85 @@
+package ru.practicum.shareit.executor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.metrics.SqlStatementCountingTaskDecorator;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Отдельные ограниченные пулы потоков для тяжёлых операций чтения. Переполнение пула одного домена
+ * не отнимает потоки сервлет-контейнера у остальных запросов: лишние задачи отклоняются,
+ * и клиент получает 503. Размер очередей и число потоков публикуются метриками executor.*
+ * с тегом name, равным имени бина. SQL-операторы задач засчитываются запросу, который их отправил.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Пул асинхронной обработки Spring MVC: потоковые ответы и выгрузки. Ограничен так же, как доменные пулы,
+     * чтобы медленные клиенты не порождали неограниченное число потоков. SQL-операторы потоковых ответов
+     * не засчитываются запросу: ответ дописывается уже после того, как фильтр записал итог.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(
+            @Value("${shareit.executor.stream.pool-size}") int poolSize,
+            @Value("${shareit.executor.stream.queue-capacity}") int queueCapacity) {
+        return boundedExecutor("stream-", poolSize, queueCapacity);
+    }
+
+    /**
+     * Явно назначает ограниченный пул исполнителем асинхронных ответов MVC вместо поиска бина по имени.
+     */
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(applicationTaskExecutor);
+            }
+        };
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor(
+            @Value("${shareit.executor.search.pool-size}") int poolSize,
+            @Value("${shareit.executor.search.queue-capacity}") int queueCapacity,
+            ObjectProvider<SqlStatementCounter> counter) {
+        return boundedExecutor("search-", poolSize, queueCapacity, counter);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor bookingExecutor(
+            @Value("${shareit.executor.booking.pool-size}") int poolSize,
+            @Value("${shareit.executor.booking.queue-capacity}") int queueCapacity,
+            ObjectProvider<SqlStatementCounter> counter) {
+        return boundedExecutor("booking-", poolSize, queueCapacity, counter);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int poolSize, int queueCapacity,
+                                                          ObjectProvider<SqlStatementCounter> counter) {
+        ThreadPoolTaskExecutor executor = boundedExecutor(threadNamePrefix, poolSize, queueCapacity);
+        counter.ifAvailable(c -> executor.setTaskDecorator(new SqlStatementCountingTaskDecorator(c)));
+        return executor;
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
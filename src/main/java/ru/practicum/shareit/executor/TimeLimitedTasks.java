@@ -0,0 +1,45 @@
+package ru.practicum.shareit.executor;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Запуск задач в ограниченных пулах с тайм-аутом. В отличие от {@link CompletableFuture#orTimeout},
+ * по истечении тайм-аута задача снимается из очереди или прерывается, и просроченный запрос
+ * не держит поток пула после того, как клиент уже получил 503.
+ */
+public final class TimeLimitedTasks {
+
+    private TimeLimitedTasks() {
+    }
+
+    /**
+     * Выполняет supplier в executor. Результат завершается {@link TimeoutException}, если задача
+     * не уложилась в timeout, и тогда задача отменяется с прерыванием потока.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException если пул переполнен
+     */
+    public static <T> CompletableFuture<T> supplyAsync(AsyncTaskExecutor executor, Duration timeout,
+                                                       Supplier<T> supplier) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(supplier.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+}
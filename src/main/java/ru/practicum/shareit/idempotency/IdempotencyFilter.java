@@ -0,0 +1,201 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Обрабатывает заголовок {@value #HEADER} у POST-запросов.
+ * Первый запрос с ключом выполняется как обычно, его успешный ответ сохраняется в {@link IdempotencyStore}.
+ * Повторы с тем же ключом от того же пользователя на тот же путь получают сохранённый ответ
+ * с заголовком {@value #REPLAYED_HEADER}, не доходя до контроллера. Вместе с ответом сохраняется хэш тела запроса:
+ * повтор ключа с другим телом отклоняется со статусом 422.
+ * Запрос с ключом выполняется в одной транзакции с сохранением ответа: данные запроса и ответ фиксируются
+ * вместе, поэтому повтор не может выполнить уже зафиксированный запрос ещё раз. Неуспешный ответ
+ * откатывает транзакцию.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final PlatformTransactionManager transactionManager;
+
+    public IdempotencyFilter(IdempotencyStore store, PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters long");
+            return;
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(request.getHeader(USER_HEADER));
+        } catch (NumberFormatException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = cachedRequest.hash();
+        IdempotentResponse.Key key = new IdempotentResponse.Key(idempotencyKey, userId, request.getRequestURI());
+        Optional<IdempotentResponse> previous;
+        try {
+            previous = store.begin(key);
+        } catch (ConflictException e) {
+            writeError(response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        }
+        if (previous.isPresent()) {
+            String previousHash = previous.get().getRequestHash();
+            if (previousHash != null && !previousHash.equals(requestHash)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " has already been used with a different request body");
+                return;
+            }
+            replay(previous.get(), response);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        IdempotentResponse completed = null;
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            chain.doFilter(cachedRequest, wrapper);
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+                IdempotentResponse saved = new IdempotentResponse(idempotencyKey, userId, key.getRequestPath(),
+                        requestHash, wrapper.getStatus(), wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8), LocalDateTime.now());
+                store.save(saved);
+                transactionManager.commit(transaction);
+                completed = saved;
+            }
+        } finally {
+            if (!transaction.isCompleted()) {
+                transactionManager.rollback(transaction);
+            }
+            store.complete(key, completed);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void replay(IdempotentResponse previous, HttpServletResponse response) throws IOException {
+        response.setStatus(previous.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (previous.getContentType() != null) {
+            response.setContentType(previous.getContentType());
+        }
+        if (previous.getBody() != null) {
+            response.getOutputStream().write(previous.getBody().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Запрос с заранее прочитанным телом: тело нужно для хэша до передачи запроса контроллеру.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        String hash() {
+            try {
+                return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Тело уже прочитано целиком, поэтому слушатель сразу получает и данные, и их окончание.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            return new BufferedReader(new InputStreamReader(getInputStream(), getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8.name() : getCharacterEncoding()));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+import ru.practicum.shareit.idempotency.storage.IdempotentResponseJpaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Хранилище ответов для запросов с заголовком Idempotency-Key.
+ * Недавние ответы держатся в ограниченном LRU-кэше, все - в таблице idempotent_response до истечения
+ * {@code shareit.idempotency.ttl}. Пока запрос с ключом выполняется, повторы с тем же ключом ждут его результата
+ * в этом экземпляре приложения, а не выполняются параллельно. Сохраняются только успешные ответы:
+ * после ошибки повтор выполняется заново.
+ * Ответ сохраняется {@link #save} в транзакции, в которой запрос создал данные: если сохранить ответ не удалось,
+ * откатываются и данные, а после фиксации повтор всегда находит ответ в таблице.
+ */
+@Service
+@Slf4j
+public class IdempotencyStore {
+
+    private final IdempotentResponseJpaRepository repository;
+    private final TransactionTemplate cleanupTransaction;
+    private final Cache<IdempotentResponse.Key, IdempotentResponse> recent;
+    private final ConcurrentMap<IdempotentResponse.Key, CompletableFuture<IdempotentResponse>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    @Autowired
+    public IdempotencyStore(IdempotentResponseJpaRepository repository, PlatformTransactionManager transactionManager,
+                            @Value("${shareit.idempotency.cache.maximum-size}") long maximumSize,
+                            @Value("${shareit.idempotency.ttl}") Duration ttl,
+                            @Value("${shareit.idempotency.wait-timeout}") Duration waitTimeout) {
+        this.repository = repository;
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Возвращает сохранённый ответ для ключа. Если ответа нет, ключ закрепляется за вызывающим,
+     * и тот обязан вызвать {@link #complete}. Если запрос с этим ключом уже выполняется, метод ждёт его результата.
+     *
+     * @throws ConflictException если выполняющийся запрос не завершился за {@code shareit.idempotency.wait-timeout}
+     */
+    public Optional<IdempotentResponse> begin(IdempotentResponse.Key key) {
+        while (true) {
+            IdempotentResponse cached = recent.getIfPresent(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            CompletableFuture<IdempotentResponse> claim = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, claim);
+            if (running == null) {
+                return findPersisted(key, claim);
+            }
+            IdempotentResponse response = await(running);
+            if (response != null) {
+                return Optional.of(response);
+            }
+        }
+    }
+
+    /**
+     * Сохраняет ответ в текущей транзакции. Вызывается до её фиксации, ошибка сохранения откатывает запрос.
+     */
+    public void save(IdempotentResponse response) {
+        repository.save(response);
+    }
+
+    /**
+     * Снимает закрепление ключа и будит ожидающие повторы. Вызывается после завершения транзакции запроса.
+     *
+     * @param response зафиксированный ответ или null, если запрос не удался или его транзакция откатилась
+     */
+    public void complete(IdempotentResponse.Key key, IdempotentResponse response) {
+        if (response != null) {
+            recent.put(key, response);
+        }
+        release(key, response);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval}")
+    public void deleteExpired() {
+        Integer deleted = cleanupTransaction.execute(status -> repository.deleteCreatedBefore(expiredBefore()));
+        if (deleted != null && deleted > 0) {
+            log.info("{} expired idempotent responses have been deleted", deleted);
+        }
+    }
+
+    private Optional<IdempotentResponse> findPersisted(IdempotentResponse.Key key,
+                                                       CompletableFuture<IdempotentResponse> claim) {
+        Optional<IdempotentResponse> persisted;
+        try {
+            persisted = repository.findById(key).filter(response -> response.getCreated().isAfter(expiredBefore()));
+        } catch (RuntimeException e) {
+            release(key, null);
+            throw e;
+        }
+        persisted.ifPresent(response -> {
+            recent.put(key, response);
+            release(key, response);
+        });
+        return persisted;
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("Request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Request with this Idempotency-Key is still in progress");
+        }
+    }
+
+    private void release(IdempotentResponse.Key key, IdempotentResponse response) {
+        CompletableFuture<IdempotentResponse> claim = inFlight.remove(key);
+        if (claim != null) {
+            claim.complete(response);
+        }
+    }
+
+    private LocalDateTime expiredBefore() {
+        return LocalDateTime.now().minus(ttl);
+    }
+}
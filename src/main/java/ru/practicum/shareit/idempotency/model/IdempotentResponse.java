@@ -0,0 +1,58 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Сохранённый успешный ответ на запрос с заголовком Idempotency-Key.
+ * Ключ действует в пределах пользователя и пути запроса; requestHash - SHA-256 тела запроса в Base64.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(IdempotentResponse.Key.class)
+@Table(name = "idempotent_response")
+public class IdempotentResponse {
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "request_path")
+    private String requestPath;
+
+    @Column(name = "request_hash")
+    private String requestHash;
+
+    private int status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    private String body;
+
+    private LocalDateTime created;
+
+    public Key getKey() {
+        return new Key(idempotencyKey, userId, requestPath);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String idempotencyKey;
+        private Long userId;
+        private String requestPath;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.idempotency.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotentResponseJpaRepository extends JpaRepository<IdempotentResponse, IdempotentResponse.Key> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotentResponse r WHERE r.created < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
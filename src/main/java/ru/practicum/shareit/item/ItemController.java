@@ -2,10 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.executor.TimeLimitedTasks;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -15,6 +20,10 @@ import ru.practicum.shareit.item.service.ItemService;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,12 +34,18 @@ public class ItemController {
     private final ItemService service;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
+    private final AsyncTaskExecutor searchExecutor;
+    private final Duration searchTimeout;
 
     @Autowired
-    public ItemController(ItemService service, CommentMapper commentMapper, ItemMapper itemMapper) {
+    public ItemController(ItemService service, CommentMapper commentMapper, ItemMapper itemMapper,
+                          @Qualifier("searchExecutor") AsyncTaskExecutor searchExecutor,
+                          @Value("${shareit.executor.search.timeout}") Duration searchTimeout) {
         this.service = service;
         this.commentMapper = commentMapper;
         this.itemMapper = itemMapper;
+        this.searchExecutor = searchExecutor;
+        this.searchTimeout = searchTimeout;
     }
 
     /**
@@ -55,6 +70,28 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.CREATED).body(itemToTransfer);
     }
 
+    /**
+     * Пакетное добавление вещей.
+     * Endpoint: POST /items/batch
+     * Принимает список объектов {@link ItemDto} и создаёт все вещи одной транзакцией:
+     * при ошибке в любой из них не создаётся ни одна.
+     *
+     * @param itemDtos список объектов {@link ItemDto}, не более 1000 за запрос
+     * @param userId   идентификатор пользователя, добавляющего вещи, передается в заголовке X-Sharer-User-Id
+     * @return {@link ResponseEntity} содержащий список добавленных {@link ItemDto} в порядке запроса и статус ответа {@link HttpStatus#CREATED}
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> addItems(
+            @RequestBody @Size(min = 1, max = 1000) List<@Valid ItemDto> itemDtos,
+            @RequestHeader("X-Sharer-User-Id") Long userId
+    ) {
+        var items = itemDtos.stream().map(itemMapper::toItem).collect(Collectors.toList());
+        items = service.createAll(items, userId);
+        log.info("{} items are created for user with ID {}", items.size(), userId);
+        var itemsToTransfer = items.stream().map(itemMapper::toDto).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(itemsToTransfer);
+    }
+
     /**
      * Редактирование вещи.
      * Endpoint: PATCH /items/{itemId}
@@ -83,17 +120,25 @@ public class ItemController {
      * Просмотр информации о конкретной вещи.
      * Endpoint: GET /items/{itemId}
      * Информацию о вещи может просмотреть любой пользователь.
+     * Ответ содержит заголовок ETag; если он совпадает с переданным в If-None-Match,
+     * возвращается статус {@link HttpStatus#NOT_MODIFIED} без загрузки бронирований и комментариев.
      *
-     * @param itemId идентификатор запрашиваемой вещи
-     * @param userId идентификатор пользователя, просматривающего информацию, передается в заголовке X-Sharer-User-Id
+     * @param itemId  идентификатор запрашиваемой вещи
+     * @param userId  идентификатор пользователя, просматривающего информацию, передается в заголовке X-Sharer-User-Id
+     * @param request текущий запрос, используется для проверки заголовка If-None-Match
      * @return {@link ResponseEntity} содержащий объект {@link ItemDto} с информацией о вещи и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDto> getItem(
             @PathVariable Long itemId,
-            @RequestHeader("X-Sharer-User-Id") Long userId
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            WebRequest request
     ) {
         var item = service.getById(itemId);
+        if (request.checkNotModified(service.getETag(item, userId))) {
+            log.info("Item data for ID {} has not been modified", itemId);
+            return null;
+        }
         var itemWithBooking = service.getExtendedItem(item, userId);
         log.info("Item data for ID {} has been successfully extracted", item.getId());
         var itemToTransfer = itemMapper.toExtendedDto(itemWithBooking);
@@ -118,9 +163,7 @@ public class ItemController {
             @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit
     ) {
         var items = service.getItemsByOwner(userId, offset, limit);
-        var itemsWithBooking = items.stream()
-                .map(item -> service.getExtendedItem(item, userId))
-                .collect(Collectors.toList());
+        var itemsWithBooking = service.getExtendedItems(items, userId);
         log.info("List consisting of {} items has been successfully fetched", items.size());
         var itemsToTransfer = itemsWithBooking.stream().map(itemMapper::toExtendedDto).collect(Collectors.toList());
         return ResponseEntity.status(HttpStatus.OK).body(itemsToTransfer);
@@ -132,6 +175,8 @@ public class ItemController {
      * Пользователь передает в строке запроса текст, по которому осуществляется поиск вещей.
      * Возвращает только доступные для аренды вещи.
      * В запросе присутствует пагинация: from - индекс первого элемента, size - количество элементов для отображения.
+     * Поиск выполняется в пуле searchExecutor; при его переполнении или если поиск не уложился
+     * в shareit.executor.search.timeout, возвращается {@link HttpStatus#SERVICE_UNAVAILABLE}.
      *
      * @param text   текст для поиска
      * @param offset смещение для постраничного вывода
@@ -139,15 +184,17 @@ public class ItemController {
      * @return {@link ResponseEntity} содержащий список объектов {@link ItemDto} и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(
+    public CompletableFuture<ResponseEntity<Object>> searchItemsByText(
             @RequestParam String text,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) int offset,
             @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit
     ) {
-        var items = service.searchItemsByText(text, offset, limit);
-        log.info("List consisting of {} items has been successfully fetched", items.size());
-        var itemsToTransfer = items.stream().map(itemMapper::toDto).collect(Collectors.toList());
-        return ResponseEntity.status(HttpStatus.OK).body(itemsToTransfer);
+        return TimeLimitedTasks.<ResponseEntity<Object>>supplyAsync(searchExecutor, searchTimeout, () -> {
+            var items = service.searchItemsByText(text, offset, limit);
+            log.info("List consisting of {} items has been successfully fetched", items.size());
+            var itemsToTransfer = items.stream().map(itemMapper::toDto).collect(Collectors.toList());
+            return ResponseEntity.status(HttpStatus.OK).body(itemsToTransfer);
+        });
     }
 
     /**
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.model;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -10,18 +12,23 @@ import javax.persistence.*;
  */
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
 @Data
 @NoArgsConstructor
 @Table(name = "item")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     Long id;
     @Column(name = "owner_id")
     Long ownerId;
     String name;
     String description;
     Boolean available;
+    @Version
+    Long version;
     @Transient
     Long requestId;
 
@@ -31,5 +38,6 @@ public class Item {
         this.name = item.getName();
         this.description = item.getDescription();
         this.available = item.getAvailable();
+        this.version = item.getVersion();
     }
 }
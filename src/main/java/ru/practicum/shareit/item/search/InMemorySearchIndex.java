@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemJpaRepository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс вещей в памяти приложения.
+ * Хранит для каждого терма множество идентификаторов вещей (posting list) и снимки проиндексированных вещей,
+ * поэтому поиск не обращается к БД. Термы запроса сопоставляются с термами документа по префиксу,
+ * документ должен содержать все термы запроса. Совпадения в названии весят больше, чем в описании.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemorySearchIndex implements SearchIndex {
+
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+    private static final int NAME_WEIGHT = 2;
+    private static final int EXACT_MATCH_WEIGHT = 2;
+
+    private final ItemJpaRepository itemRepository;
+    private final NavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemorySearchIndex(ItemJpaRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        PageRequest pageRequest = PageRequest.of(0, WARM_UP_BATCH_SIZE, Sort.by("id"));
+        Slice<Item> batch;
+        do {
+            batch = itemRepository.findAll(pageRequest);
+            batch.forEach(this::index);
+            pageRequest = pageRequest.next();
+        } while (batch.hasNext());
+        log.info("Search index is warmed up with {} items", documents.size());
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        Document previous = documents.get(item.getId());
+        if (previous != null) {
+            previous.terms().forEach(term -> removePosting(term, item.getId()));
+        }
+        Document document = new Document(new Item(item));
+        documents.put(item.getId(), document);
+        document.terms().forEach(term -> postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet())
+                .add(item.getId()));
+    }
+
+    @Override
+    public List<Item> search(String text, int offset, int limit) {
+        List<String> queryTerms = SearchTokenizer.tokenize(text);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> candidates = null;
+        for (String queryTerm : queryTerms) {
+            Set<Long> matching = matchPrefix(queryTerm);
+            if (candidates == null) {
+                candidates = matching;
+            } else {
+                candidates.retainAll(matching);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+        return candidates.stream()
+                .map(documents::get)
+                .filter(document -> document != null && Boolean.TRUE.equals(document.item.getAvailable()))
+                .map(document -> Map.entry(document, document.score(queryTerms)))
+                .filter(scored -> scored.getValue() > 0)
+                .sorted(Comparator.comparing(Map.Entry<Document, Integer>::getValue).reversed()
+                        .thenComparing(scored -> scored.getKey().item.getId()))
+                .skip(offset)
+                .limit(limit)
+                .map(scored -> scored.getKey().item)
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> matchPrefix(String prefix) {
+        Set<Long> matching = new HashSet<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(matching::addAll);
+        return matching;
+    }
+
+    private void removePosting(String term, Long itemId) {
+        postings.computeIfPresent(term, (key, itemIds) -> {
+            itemIds.remove(itemId);
+            return itemIds.isEmpty() ? null : itemIds;
+        });
+    }
+
+    private static class Document {
+        private final Item item;
+        private final Map<String, Integer> nameTerms;
+        private final Map<String, Integer> descriptionTerms;
+
+        Document(Item item) {
+            this.item = item;
+            this.nameTerms = countTerms(SearchTokenizer.tokenize(item.getName()));
+            this.descriptionTerms = countTerms(SearchTokenizer.tokenize(item.getDescription()));
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new HashSet<>(nameTerms.keySet());
+            terms.addAll(descriptionTerms.keySet());
+            return terms;
+        }
+
+        int score(Collection<String> queryTerms) {
+            int score = 0;
+            for (String queryTerm : queryTerms) {
+                score += NAME_WEIGHT * score(nameTerms, queryTerm) + score(descriptionTerms, queryTerm);
+            }
+            return score;
+        }
+
+        private static int score(Map<String, Integer> terms, String queryTerm) {
+            int score = 0;
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                if (term.getKey().startsWith(queryTerm)) {
+                    int weight = term.getKey().equals(queryTerm) ? EXACT_MATCH_WEIGHT : 1;
+                    score += weight * term.getValue();
+                }
+            }
+            return score;
+        }
+
+        private static Map<String, Integer> countTerms(List<String> terms) {
+            Map<String, Integer> counts = new HashMap<>();
+            terms.forEach(term -> counts.merge(term, 1, Integer::sum));
+            return counts;
+        }
+    }
+}
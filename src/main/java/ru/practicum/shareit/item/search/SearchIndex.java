@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поисковый индекс вещей.
+ * Реализация выбирается свойством {@code shareit.search.engine}: {@code memory} (по умолчанию) или {@code sql}.
+ */
+public interface SearchIndex {
+
+    /**
+     * Добавляет вещь в индекс или обновляет её, если она уже проиндексирована.
+     */
+    void index(Item item);
+
+    /**
+     * Возвращает страницу доступных для аренды вещей, подходящих под текст запроса, в порядке релевантности.
+     */
+    List<Item> search(String text, int offset, int limit);
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш страниц результатов поиска вещей с коротким временем жизни.
+ * Ключ - текст запроса в нижнем регистре и параметры страницы. При создании или изменении вещи
+ * сбрасываются только те запросы, под которые вещь подходила до изменения или подходит после него:
+ * по вхождению текста запроса в название или описание (как в SQL-поиске) или по префиксам термов (как в индексе в памяти).
+ * Результат, посчитанный параллельно с инвалидацией, в кэш не попадает.
+ */
+@Component
+public class SearchResultCache implements MeterBinder {
+
+    private static final String NAME = "item-search";
+
+    private final Cache<Key, List<Item>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public SearchResultCache(@Value("${shareit.search.cache.maximum-size}") long maximumSize,
+                             @Value("${shareit.search.cache.ttl}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public List<Item> get(String text, int offset, int limit, Supplier<List<Item>> loader) {
+        Key key = new Key(normalize(text), offset, limit);
+        List<Item> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long invalidationsBefore = invalidations.get();
+        List<Item> loaded = loader.get().stream().map(Item::new).collect(Collectors.toUnmodifiableList());
+        if (invalidations.get() == invalidationsBefore) {
+            cache.put(key, loaded);
+            // Инвалидация между проверкой и put могла пройти по кэшу раньше, чем в нём появился результат
+            if (invalidations.get() != invalidationsBefore) {
+                cache.asMap().remove(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Сбрасывает запросы, на результат которых влияет изменение вещи.
+     *
+     * @param before состояние вещи до изменения или {@code null} для новой вещи
+     * @param after  состояние вещи после изменения
+     */
+    public void invalidate(Item before, Item after) {
+        invalidations.incrementAndGet();
+        List<String> beforeTerms = terms(before);
+        List<String> afterTerms = terms(after);
+        cache.asMap().keySet().removeIf(key -> key.matches(before, beforeTerms) || key.matches(after, afterTerms));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+        Gauge.builder("cache.hit.ratio", cache, value -> value.stats().hitRate())
+                .tag("cache", NAME)
+                .description("The ratio of cache requests which were hits")
+                .register(registry);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> terms(Item item) {
+        List<String> terms = new ArrayList<>();
+        if (item != null) {
+            terms.addAll(SearchTokenizer.tokenize(item.getName()));
+            terms.addAll(SearchTokenizer.tokenize(item.getDescription()));
+        }
+        return terms;
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+        private final String text;
+        private final int offset;
+        private final int limit;
+        @EqualsAndHashCode.Exclude
+        private final List<String> terms;
+
+        Key(String text, int offset, int limit) {
+            this.text = text;
+            this.offset = offset;
+            this.limit = limit;
+            this.terms = SearchTokenizer.tokenize(text);
+        }
+
+        boolean matches(Item item, List<String> itemTerms) {
+            if (item == null) {
+                return false;
+            }
+            if (normalize(item.getName()).contains(text) || normalize(item.getDescription()).contains(text)) {
+                return true;
+            }
+            return !terms.isEmpty() && terms.stream()
+                    .allMatch(queryTerm -> itemTerms.stream().anyMatch(term -> term.startsWith(queryTerm)));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Разбивает текст на термы: слова из букв и цифр в нижнем регистре с отброшенными окончаниями.
+ * Стемминг упрощённый (русские и английские окончания) и применяется одинаково к документам и к запросам.
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final String[] SUFFIXES = {
+            "ями", "ами", "ого", "его", "ому", "ему", "ыми", "ими",
+            "ing", "ies", "ов", "ев", "ей", "ах", "ях", "ом", "ем", "ой", "ый", "ий", "ая", "яя", "ое", "ее",
+            "ые", "ие", "ых", "их", "ую", "юю", "ed", "es",
+            "а", "я", "ы", "и", "у", "ю", "е", "о", "ь", "s"
+    };
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        String stem = stripSuffix(word);
+        if (stem.endsWith("ь") && stem.length() > MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String stripSuffix(String word) {
+        for (String suffix : SUFFIXES) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemJpaRepository;
+
+import java.util.List;
+
+/**
+ * Поиск через LIKE-запрос к таблице item. Индекс не хранит состояния.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "sql")
+public class SqlSearchIndex implements SearchIndex {
+
+    private final ItemJpaRepository itemRepository;
+
+    @Autowired
+    public SqlSearchIndex(ItemJpaRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public List<Item> search(String text, int offset, int limit) {
+        PageRequest pageRequest = PageRequest.of(offset / limit, limit);
+        return itemRepository.searchForItems(text, pageRequest).getContent();
+    }
+}
@@ -5,11 +5,14 @@ import ru.practicum.shareit.item.model.ExtendedItem;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
     Item create(Item itemDto, Long ownerId);
 
+    List<Item> createAll(List<Item> items, Long ownerId);
+
     Item edit(Long itemId, Item itemDto, Long ownerId);
 
     void validate(Long itemId);
@@ -18,6 +21,10 @@ public interface ItemService {
 
     ExtendedItem getExtendedItem(Item item, Long userId);
 
+    String getETag(Item item, Long userId);
+
+    List<ExtendedItem> getExtendedItems(Collection<Item> items, Long userId);
+
     Collection<Item> getItemsByOwner(Long ownerId, int offset, int limit);
 
     Collection<Item> searchItemsByText(String text, int offset, int limit);
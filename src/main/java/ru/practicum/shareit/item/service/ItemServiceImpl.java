@@ -5,19 +5,28 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.IdentityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.ExtendedItem;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchIndex;
+import ru.practicum.shareit.item.search.SearchResultCache;
 import ru.practicum.shareit.item.storage.CommentJpaRepository;
 import ru.practicum.shareit.item.storage.ItemJpaRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Transactions;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Qualifier("ItemServiceImpl")
@@ -28,15 +37,23 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final BookingService bookingService;
     private final ItemRequestService itemRequestService;
+    private final SearchIndex searchIndex;
+    private final IdentityCache<Item> itemCache;
+    private final SearchResultCache searchResultCache;
 
     @Autowired
     public ItemServiceImpl(ItemJpaRepository itemRepository, CommentJpaRepository commentRepository,
-                           UserService userService, @Lazy BookingService bookingService, ItemRequestService itemRequestService) {
+                           UserService userService, @Lazy BookingService bookingService, ItemRequestService itemRequestService,
+                           SearchIndex searchIndex, IdentityCache<Item> itemCache,
+                           SearchResultCache searchResultCache) {
         this.itemRepository = itemRepository;
         this.commentRepository = commentRepository;
         this.userService = userService;
         this.bookingService = bookingService;
         this.itemRequestService = itemRequestService;
+        this.searchIndex = searchIndex;
+        this.itemCache = itemCache;
+        this.searchResultCache = searchResultCache;
     }
 
     @Override
@@ -48,9 +65,27 @@ public class ItemServiceImpl implements ItemService {
         if (item.getRequestId() != null) {
             itemRequestService.createResponse(item, item.getRequestId());
         }
+        reindexAfterCommit(null, item);
         return item;
     }
 
+    /**
+     * Создаёт вещи одной транзакцией. Идентификаторы выделяются блоками из последовательности,
+     * поэтому вставки уходят в БД JDBC-батчами при сбросе контекста.
+     */
+    @Override
+    @Transactional
+    public List<Item> createAll(List<Item> items, Long ownerId) {
+        userService.validate(ownerId);
+        items.forEach(item -> item.setOwnerId(ownerId));
+        List<Item> savedItems = itemRepository.saveAll(items);
+        savedItems.stream()
+                .filter(item -> item.getRequestId() != null)
+                .forEach(item -> itemRequestService.createResponse(item, item.getRequestId()));
+        savedItems.forEach(item -> reindexAfterCommit(null, item));
+        return savedItems;
+    }
+
     @Override
     @Transactional
     public Item edit(Long itemId, Item item, Long ownerId) {
@@ -60,10 +95,21 @@ public class ItemServiceImpl implements ItemService {
         if (!existingItem.getOwnerId().equals(ownerId)) {
             throw new IllegalArgumentException("Not authorized to edit this item");
         }
+        Item before = new Item(existingItem);
         updateItemFields(existingItem, item);
+        itemRequestService.touchRequestsAnsweredBy(itemId);
+        itemCache.invalidate(itemId);
+        reindexAfterCommit(before, existingItem);
         return existingItem;
     }
 
+    private void reindexAfterCommit(Item before, Item after) {
+        Transactions.afterCommit(() -> {
+            searchIndex.index(after);
+            searchResultCache.invalidate(before, after);
+        });
+    }
+
     private void updateItemFields(Item existingItem, Item newItem) {
         if (newItem.getName() != null) {
             existingItem.setName(newItem.getName());
@@ -78,14 +124,12 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public void validate(Long itemId) {
-        if (!itemRepository.existsById(itemId)) {
-            throw new NotFoundException("Item not found");
-        }
+        getById(itemId);
     }
 
     @Override
     public Item getById(Long itemId) {
-        return itemRepository.findById(itemId)
+        return itemCache.get(itemId, itemRepository::findById)
                 .orElseThrow(() -> new NotFoundException("Item not found"));
     }
 
@@ -93,16 +137,69 @@ public class ItemServiceImpl implements ItemService {
     public ExtendedItem getExtendedItem(Item item, Long userId) {
         ExtendedItem extendedItem = new ExtendedItem(item);
 
-        bookingService.getLastBooking(item.getId(), userId)
-                .ifPresent(extendedItem::setLastBooking);
-        bookingService.getNextBooking(item.getId(), userId)
-                .ifPresent(extendedItem::setNextBooking);
+        if (item.getOwnerId().equals(userId)) {
+            setBookings(extendedItem, bookingService.getBookingSummaries(List.of(item.getId())).get(item.getId()));
+        }
 
         extendedItem.setComments(commentRepository.findByItemId(item.getId()));
 
         return extendedItem;
     }
 
+    /**
+     * ETag представления вещи для пользователя. Владельцу показываются бронирования,
+     * поэтому в его ETag входят идентификаторы показанных последнего и следующего бронирований.
+     * Версия сводки для этого не подходит: сводку, которую планировщик ещё не сдвинул, чтение пересчитывает
+     * в памяти, не меняя её версию.
+     * Комментарии меняют версию самой вещи, см. {@link #addComment(Long, Long, Comment)}.
+     */
+    @Override
+    public String getETag(Item item, Long userId) {
+        String etag = "item-" + item.getId() + "-" + item.getVersion();
+        if (item.getOwnerId().equals(userId)) {
+            ItemBookingSummary summary = bookingService.getBookingSummaries(List.of(item.getId())).get(item.getId());
+            etag += "-" + bookingId(summary == null ? null : summary.getLastBooking())
+                    + "-" + bookingId(summary == null ? null : summary.getNextBooking());
+        }
+        return etag;
+    }
+
+    private static long bookingId(BookingSnapshot booking) {
+        return booking == null ? 0 : booking.getId();
+    }
+
+    @Override
+    public List<ExtendedItem> getExtendedItems(Collection<Item> items, Long userId) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> item.getOwnerId().equals(userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = bookingService.getBookingSummaries(ownItemIds);
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return items.stream()
+                .map(item -> {
+                    ExtendedItem extendedItem = new ExtendedItem(item);
+                    setBookings(extendedItem, summaries.get(item.getId()));
+                    extendedItem.setComments(comments.getOrDefault(item.getId(), List.of()));
+                    return extendedItem;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static void setBookings(ExtendedItem extendedItem, ItemBookingSummary summary) {
+        if (summary != null) {
+            extendedItem.setLastBooking(summary.getLastBooking());
+            extendedItem.setNextBooking(summary.getNextBooking());
+        }
+    }
+
     @Override
     public Collection<Item> getItemsByOwner(Long ownerId, int offset, int limit) {
         userService.validate(ownerId);
@@ -112,14 +209,14 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public Collection<Item> searchItemsByText(String text, int offset, int limit) {
-        PageRequest pageRequest = PageRequest.of(offset / limit, limit);
-        return itemRepository.searchForItems(text, pageRequest).getContent();
+        return searchResultCache.get(text, offset, limit, () -> searchIndex.search(text, offset, limit));
     }
 
     @Override
     @Transactional
     public Comment addComment(Long itemId, Long userId, Comment comment) {
-        var item = getById(itemId);
+        var item = itemRepository.findWithVersionIncrementById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item not found"));
         var user = userService.getById(userId);
         if (!bookingService.isUserBookedItem(user.getId(), item.getId())) {
             throw new IllegalArgumentException("User has not rented this item");
@@ -128,6 +225,7 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
         comment.setUser(user);
         comment.setCreated(LocalDateTime.now());
+        itemCache.invalidate(itemId);
 
         return commentRepository.save(comment);
     }
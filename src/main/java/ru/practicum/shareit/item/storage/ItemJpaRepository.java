@@ -3,10 +3,16 @@ package ru.practicum.shareit.item.storage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
 public interface ItemJpaRepository extends JpaRepository<Item, Long> {
@@ -19,4 +25,20 @@ public interface ItemJpaRepository extends JpaRepository<Item, Long> {
             "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))) " +
             "AND i.available = true")
     Slice<Item> searchForItems(String text, Pageable pageable);
+
+    /**
+     * Блокирует строку вещи и сразу увеличивает её версию, даже если сама строка item не меняется
+     * (например, при добавлении комментария). Блокировка упорядочивает параллельные изменения,
+     * поэтому они не завершаются ошибкой оптимистичной блокировки.
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    Optional<Item> findWithVersionIncrementById(Long id);
+
+    /**
+     * Блокирует строки вещей, не меняя их версию. Строки блокируются в порядке идентификаторов,
+     * чтобы пакетные блокировки из разных транзакций не приводили к взаимоблокировке.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllForUpdate(Collection<Long> ids);
 }
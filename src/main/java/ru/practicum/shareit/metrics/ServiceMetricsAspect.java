@@ -0,0 +1,73 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Таймер {@value #METRIC_NAME} на каждый вызов методов BookingService, ItemService, ItemRequestService и UserService.
+ * Теги: service и method — вызванный метод, state — фильтр состояния бронирований, если метод его принимает,
+ * outcome и exception — результат вызова. Неизвестные значения state сводятся к UNKNOWN,
+ * чтобы пользовательский ввод не порождал новые временные ряды.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "shareit.service";
+    private static final String STATE_PARAMETER = "state";
+    private static final Set<String> KNOWN_STATES =
+            Set.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "APPROVED", "CANCELED");
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit.booking.service.BookingService.*(..))"
+            + " || execution(public * ru.practicum.shareit.item.service.ItemService.*(..))"
+            + " || execution(public * ru.practicum.shareit.request.service.ItemRequestService.*(..))"
+            + " || execution(public * ru.practicum.shareit.user.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("service", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag(STATE_PARAMETER, stateOf(signature, joinPoint.getArgs()))
+                    .tag("outcome", "none".equals(exception) ? "SUCCESS" : "ERROR")
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+
+    private static String stateOf(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        if (names == null) {
+            return "none";
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (STATE_PARAMETER.equals(names[i]) && args[i] instanceof String) {
+                String state = ((String) args[i]).toUpperCase();
+                return KNOWN_STATES.contains(state) ? state : "UNKNOWN";
+            }
+        }
+        return "none";
+    }
+}
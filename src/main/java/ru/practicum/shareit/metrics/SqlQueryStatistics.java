@@ -0,0 +1,131 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Статистика выполнения SQL по отпечаткам запросов: число выполнений, суммарное и максимальное время,
+ * число медленных выполнений. Отпечаток — текст запроса, в котором литералы заменены на {@code ?},
+ * а списки параметров IN свёрнуты, поэтому запросы с разным числом идентификаторов попадают в одну строку.
+ * Счётчики обновляются без блокировок. Число отпечатков ограничено {@code shareit.sql.max-fingerprints},
+ * сверх него выполнения учитываются в строке {@value #OTHER}.
+ * Запросы не быстрее {@code shareit.sql.slow-query-threshold} логируются без значений параметров.
+ */
+@Component
+@Slf4j
+public class SqlQueryStatistics implements QueryExecutionListener {
+
+    static final String OTHER = "<other>";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration slowQueryThreshold;
+    private final int maxFingerprints;
+
+    @Autowired
+    public SqlQueryStatistics(@Value("${shareit.sql.slow-query-threshold}") Duration slowQueryThreshold,
+                              @Value("${shareit.sql.max-fingerprints}") int maxFingerprints) {
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            record(queryInfo.getQuery(), execInfo.getElapsedTime());
+        }
+    }
+
+    void record(String sql, long elapsedMillis) {
+        String fingerprint = fingerprint(sql);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            String key = entries.size() < maxFingerprints ? fingerprint : OTHER;
+            entry = entries.computeIfAbsent(key, k -> new Entry());
+        }
+        boolean slow = elapsedMillis >= slowQueryThreshold.toMillis();
+        entry.record(elapsedMillis, slow);
+        if (slow) {
+            log.warn("Slow SQL query took {} ms: {}", elapsedMillis, fingerprint);
+        }
+    }
+
+    static String fingerprint(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("(?...)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+
+    /**
+     * Снимок статистики, отсортированный по убыванию суммарного времени.
+     */
+    public List<QueryStats> snapshot() {
+        return entries.entrySet().stream()
+                .map(e -> e.getValue().toStats(e.getKey()))
+                .sorted(Comparator.comparingLong(QueryStats::getTotalMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class QueryStats {
+        private final String fingerprint;
+        private final long count;
+        private final long slowCount;
+        private final long totalMillis;
+        private final long maxMillis;
+    }
+
+    private static class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+        void record(long elapsedMillis, boolean slow) {
+            count.increment();
+            totalMillis.add(elapsedMillis);
+            maxMillis.accumulate(elapsedMillis);
+            if (slow) {
+                slowCount.increment();
+            }
+        }
+
+        QueryStats toStats(String fingerprint) {
+            return new QueryStats(fingerprint, count.sum(), slowCount.sum(), totalMillis.sum(), maxMillis.get());
+        }
+    }
+}
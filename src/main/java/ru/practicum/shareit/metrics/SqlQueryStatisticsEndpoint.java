@@ -0,0 +1,59 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint /actuator/sqlstats: статистика SQL по отпечаткам запросов.
+ * /actuator/sqlstats/slow оставляет только отпечатки, у которых были медленные выполнения;
+ * DELETE сбрасывает накопленную статистику.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlQueryStatisticsEndpoint {
+
+    private static final String SLOW = "slow";
+
+    private final SqlQueryStatistics statistics;
+
+    @Autowired
+    public SqlQueryStatisticsEndpoint(SqlQueryStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Report report() {
+        return new Report(statistics.getSlowQueryThreshold().toMillis(), statistics.snapshot());
+    }
+
+    @ReadOperation
+    public Report report(@Selector String filter) {
+        if (!SLOW.equals(filter)) {
+            throw new InvalidEndpointRequestException("Unknown filter: " + filter, "Unknown filter");
+        }
+        List<SqlQueryStatistics.QueryStats> queries = statistics.snapshot().stream()
+                .filter(q -> q.getSlowCount() > 0)
+                .collect(Collectors.toList());
+        return new Report(statistics.getSlowQueryThreshold().toMillis(), queries);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+
+    @Value
+    public static class Report {
+        long slowQueryThresholdMillis;
+        List<SqlQueryStatistics.QueryStats> queries;
+    }
+}
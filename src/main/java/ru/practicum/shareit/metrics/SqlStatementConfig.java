@@ -0,0 +1,46 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatementConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountingFilter> sqlStatementCountingFilter(
+            SqlStatementCounter counter, MeterRegistry registry,
+            @Value("${shareit.sql.statement-warn-threshold}") int warnThreshold) {
+        return new FilterRegistrationBean<>(new SqlStatementCountingFilter(counter, registry, warnThreshold));
+    }
+
+    /**
+     * Оборачивает источник данных прокси, который передаёт каждый выполненный запрос в {@link SqlQueryStatistics}
+     * (время выполнения) и в {@link SqlStatementCounter} (число операторов на HTTP-запрос). Запросы перехватываются
+     * на уровне JDBC, поэтому учитываются и запросы из {@code @Query}, и Criteria-запросы, и загрузка сущностей.
+     */
+    @Bean
+    public static BeanPostProcessor sqlQueryStatisticsDataSourceProxy(ObjectProvider<SqlQueryStatistics> statistics,
+                                                                      ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                            .listener(statistics.getObject())
+                            .listener(counter.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
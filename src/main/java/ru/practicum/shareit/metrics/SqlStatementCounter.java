@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Считает SQL-операторы, которые выполняются через прокси источника данных в текущем потоке,
+ * см. {@link SqlStatementConfig}. Подсчёт ведётся только между {@link #start()} (или {@link #join(AtomicInteger)})
+ * и {@link #stop()}; вне этого интервала (фоновые задачи, потоковые ответы) операторы не учитываются.
+ */
+@Component
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<AtomicInteger> counter = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        AtomicInteger count = counter.get();
+        if (count != null) {
+            count.addAndGet(queryInfoList.size());
+        }
+    }
+
+    public void start() {
+        join(new AtomicInteger());
+    }
+
+    /**
+     * Начинает подсчёт в общем счётчике: операторы текущего потока добавляются к операторам
+     * других потоков, работающих над той же задачей, в момент выполнения.
+     */
+    public void join(AtomicInteger total) {
+        counter.set(total);
+    }
+
+    public int count() {
+        AtomicInteger count = counter.get();
+        return count == null ? 0 : count.get();
+    }
+
+    public int stop() {
+        int count = count();
+        counter.remove();
+        return count;
+    }
+}
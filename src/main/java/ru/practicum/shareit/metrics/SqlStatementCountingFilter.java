@@ -0,0 +1,135 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Считает SQL-операторы, выполненные при обработке запроса.
+ * Число операторов возвращается в заголовке {@value #HEADER} и попадает в распределение {@value #METRIC_NAME}
+ * с тегами method и uri. Запросы, превысившие {@code shareit.sql.statement-warn-threshold}, логируются
+ * как вероятные N+1.
+ * Заголовок выставляется перед первой записью тела, поэтому операторы, выполненные уже во время
+ * записи (например, в потоковых ответах), в него не входят.
+ * Асинхронный запрос учитывается один раз, при диспетчеризации результата: счётчик запроса общий
+ * для обоих проходов фильтра и задач, которые {@link SqlStatementCountingTaskDecorator} выполнил
+ * в пулах потоков от имени этого запроса.
+ */
+@Slf4j
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Sql-Statement-Count";
+    static final String METRIC_NAME = "shareit.http.sql.statements";
+    static final String TOTAL_ATTRIBUTE = SqlStatementCountingFilter.class.getName() + ".TOTAL";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public SqlStatementCountingFilter(SqlStatementCounter counter, MeterRegistry registry, int warnThreshold) {
+        this.counter = counter;
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicInteger total = (AtomicInteger) request.getAttribute(TOTAL_ATTRIBUTE);
+        if (total == null) {
+            total = new AtomicInteger();
+            request.setAttribute(TOTAL_ATTRIBUTE, total);
+        }
+        CountingResponse countingResponse = new CountingResponse(response);
+        counter.join(total);
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            int count = counter.stop();
+            if (!isAsyncStarted(request)) {
+                countingResponse.writeHeader(count);
+                record(request, count);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int count) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(METRIC_NAME)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(count);
+        if (count > warnThreshold) {
+            log.warn("{} {} executed {} SQL statements, possible N+1", request.getMethod(), uri, count);
+        }
+    }
+
+    private class CountingResponse extends HttpServletResponseWrapper {
+
+        private boolean headerWritten;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void writeHeader() {
+            writeHeader(counter.count());
+        }
+
+        void writeHeader(int count) {
+            if (!headerWritten && !isCommitted()) {
+                setHeader(HEADER, String.valueOf(count));
+            }
+            headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+    }
+}
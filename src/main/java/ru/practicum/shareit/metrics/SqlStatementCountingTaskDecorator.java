@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Считает SQL-операторы задач, отправленных в пул из потока обработки запроса.
+ * Задача ведёт подсчёт в счётчике запроса, который создаёт {@link SqlStatementCountingFilter},
+ * поэтому её операторы попадают в заголовок, метрику и предупреждение о N+1 так же, как операторы
+ * самого запроса, и учтены к моменту, когда результат задачи возвращается в запрос.
+ * Задачи, отправленные вне запроса, выполняются без подсчёта.
+ */
+public class SqlStatementCountingTaskDecorator implements TaskDecorator {
+
+    private final SqlStatementCounter counter;
+
+    public SqlStatementCountingTaskDecorator(SqlStatementCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        AtomicInteger total = attributes == null ? null : (AtomicInteger) attributes.getAttribute(
+                SqlStatementCountingFilter.TOTAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (total == null) {
+            return runnable;
+        }
+        return () -> {
+            counter.join(total);
+            try {
+                runnable.run();
+            } finally {
+                counter.stop();
+            }
+        };
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
@@ -71,9 +72,8 @@ public class ItemRequestController {
     ) {
         List<ItemRequest> requests = requestService.getUserRequests(userId);
         log.info("Requests for user with ID {} have been successfully fetched", userId);
-        List<ItemRequestWithResponsesDto> requestDtos = requests
+        List<ItemRequestWithResponsesDto> requestDtos = requestService.getExtendedRequests(requests)
                 .stream()
-                .map(requestService::getExtendedRequest)
                 .map(requestMapper::toWithResponsesDto)
                 .collect(Collectors.toList());
         return ResponseEntity.status(HttpStatus.OK).body(requestDtos);
@@ -100,9 +100,8 @@ public class ItemRequestController {
     ) {
         List<ItemRequest> requests = requestService.getAllRequests(userId, offset, limit);
         log.info("All requests for user with ID {} have been successfully fetched", userId);
-        List<ItemRequestWithResponsesDto> requestDtos = requests
+        List<ItemRequestWithResponsesDto> requestDtos = requestService.getExtendedRequests(requests)
                 .stream()
-                .map(requestService::getExtendedRequest)
                 .map(requestMapper::toWithResponsesDto)
                 .collect(Collectors.toList());
         return ResponseEntity.status(HttpStatus.OK).body(requestDtos);
@@ -113,17 +112,25 @@ public class ItemRequestController {
      * Endpoint: GET /requests/{requestId}
      * Возвращает данные о запросе вместе с данными об ответах на него.
      * userId в заголовке X-Sharer-User-Id — идентификатор пользователя, запросившего данные.
+     * Ответ содержит заголовок ETag; если он совпадает с переданным в If-None-Match,
+     * возвращается статус {@link HttpStatus#NOT_MODIFIED} без загрузки ответов на запрос.
      *
-     * @param userId    идентификатор пользователя, запросившего данные, передается в заголовке X-Sharer-User-Id
-     * @param requestId идентификатор запрашиваемого запроса
+     * @param userId     идентификатор пользователя, запросившего данные, передается в заголовке X-Sharer-User-Id
+     * @param requestId  идентификатор запрашиваемого запроса
+     * @param webRequest текущий запрос, используется для проверки заголовка If-None-Match
      * @return {@link ResponseEntity} содержащий объект {@link ItemRequestWithResponsesDto} и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestWithResponsesDto> getRequestById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @PathVariable Long requestId
+            @PathVariable Long requestId,
+            WebRequest webRequest
     ) {
         ItemRequest request = requestService.getById(userId, requestId);
+        if (webRequest.checkNotModified("request-" + request.getId() + "-" + request.getVersion())) {
+            log.info("Request with ID {} has not been modified", requestId);
+            return null;
+        }
         log.info("Request with ID {} for user with ID {} has been successfully fetched", requestId, userId);
         var extendedRequest = requestService.getExtendedRequest(request);
         ItemRequestWithResponsesDto requestDto = requestMapper.toWithResponsesDto(extendedRequest);
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_request_seq")
+    @SequenceGenerator(name = "item_request_seq", sequenceName = "item_request_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "description", nullable = false)
@@ -27,11 +28,15 @@ public class ItemRequest {
     @Column(nullable = false)
     private LocalDateTime created;
 
+    @Version
+    private Long version;
+
     public ItemRequest(ItemRequest itemRequest) {
         this.id = itemRequest.getId();
         this.description = itemRequest.getDescription();
         this.requester = itemRequest.getRequester();
         this.created = itemRequest.getCreated();
+        this.version = itemRequest.getVersion();
     }
 
 }
@@ -13,7 +13,8 @@ import javax.persistence.*;
 public class ItemResponse {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_response_seq")
+    @SequenceGenerator(name = "item_response_seq", sequenceName = "item_response_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
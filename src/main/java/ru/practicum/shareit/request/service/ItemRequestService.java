@@ -12,10 +12,14 @@ public interface ItemRequestService {
 
     ItemResponse createResponse(Item item, Long requestId);
 
+    void touchRequestsAnsweredBy(Long itemId);
+
     ItemRequest getById(Long userId, Long requestId);
 
     ExtendedItemRequest getExtendedRequest(ItemRequest item);
 
+    List<ExtendedItemRequest> getExtendedRequests(List<ItemRequest> requests);
+
     List<ItemRequest> getUserRequests(Long userId);
 
     List<ItemRequest> getAllRequests(Long userId, int offset, int limit);
@@ -16,6 +16,8 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemRequestServiceImpl implements ItemRequestService {
@@ -44,20 +46,46 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemResponse createResponse(Item item, Long requestId) {
         ItemResponse response = new ItemResponse();
         response.setResponseItem(item);
-        ItemRequest request = requestRepository.findById(requestId)
+        ItemRequest request = requestRepository.findWithVersionIncrementById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request not found"));
         response.setRequest(request);
         return responseRepository.save(response);
     }
 
+    /**
+     * Меняет версии запросов, на которые ответили вещью: данные вещи входят в представление запроса.
+     */
+    @Transactional
+    @Override
+    public void touchRequestsAnsweredBy(Long itemId) {
+        requestRepository.incrementVersionByResponseItemId(itemId);
+    }
+
     @Override
     public ExtendedItemRequest getExtendedRequest(ItemRequest itemRequest) {
         ExtendedItemRequest extendedRequest = new ExtendedItemRequest(itemRequest);
-        var sad = responseRepository.findAllByRequest_Id(itemRequest.getId());
-        extendedRequest.setResponses(sad);
+        extendedRequest.setResponses(responseRepository.findAllByRequest_Id(itemRequest.getId()));
         return extendedRequest;
     }
 
+    @Override
+    public List<ExtendedItemRequest> getExtendedRequests(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemResponse>> responses = responseRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(response -> response.getRequest().getId()));
+
+        return requests.stream()
+                .map(request -> {
+                    ExtendedItemRequest extendedRequest = new ExtendedItemRequest(request);
+                    extendedRequest.setResponses(responses.getOrDefault(request.getId(), List.of()));
+                    return extendedRequest;
+                })
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<ItemRequest> getUserRequests(Long userId) {
         userService.validate(userId);
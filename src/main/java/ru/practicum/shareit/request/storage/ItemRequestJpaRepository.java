@@ -2,15 +2,34 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestJpaRepository extends JpaRepository<ItemRequest, Long> {
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-
+    @EntityGraph(attributePaths = "requester")
     Slice<ItemRequest> findByRequesterIdNot(Long userId, Pageable pageable);
+
+    /**
+     * Блокирует строку запроса и сразу увеличивает его версию: ответ на запрос меняет его представление.
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    Optional<ItemRequest> findWithVersionIncrementById(Long id);
+
+    @Modifying
+    @Query("UPDATE ItemRequest r " +
+            "SET r.version = r.version + 1 " +
+            "WHERE r.id IN (SELECT resp.request.id FROM ItemResponse resp WHERE resp.responseItem.id = :itemId)")
+    int incrementVersionByResponseItemId(Long itemId);
 }
@@ -1,10 +1,20 @@
 package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemResponse;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemResponseJpaRepository extends JpaRepository<ItemResponse, Long> {
-    List<ItemResponse> findAllByRequest_Id(Long responseItemId);
+    @Query("SELECT r FROM ItemResponse r " +
+            "JOIN FETCH r.responseItem " +
+            "WHERE r.request.id = :requestId")
+    List<ItemResponse> findAllByRequest_Id(Long requestId);
+
+    @Query("SELECT r FROM ItemResponse r " +
+            "JOIN FETCH r.responseItem " +
+            "WHERE r.request.id IN :requestIds")
+    List<ItemResponse> findAllByRequestIdIn(Collection<Long> requestIds);
 }
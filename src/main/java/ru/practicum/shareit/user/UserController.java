@@ -1,29 +1,45 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/users")
 @Slf4j
+@Validated
 public class UserController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService service;
     private final UserMapper mapper;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService service, UserMapper mapper) {
+    public UserController(UserService service, UserMapper mapper, ObjectMapper objectMapper) {
         this.service = service;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -69,15 +85,23 @@ public class UserController {
     /**
      * Просмотр информации о конкретном пользователе.
      * Endpoint: GET /users/{userId}
+     * Ответ содержит заголовок ETag; если он совпадает с переданным в If-None-Match,
+     * возвращается статус {@link HttpStatus#NOT_MODIFIED} без тела.
      *
-     * @param userId идентификатор пользователя, информацию о котором необходимо получить
+     * @param userId  идентификатор пользователя, информацию о котором необходимо получить
+     * @param request текущий запрос, используется для проверки заголовка If-None-Match
      * @return {@link ResponseEntity} содержащий объект {@link UserDto} с данными пользователя и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping("/{userId}")
     public ResponseEntity<UserDto> getUser(
-            @PathVariable Long userId
+            @PathVariable Long userId,
+            WebRequest request
     ) {
         var user = service.getById(userId);
+        if (request.checkNotModified("user-" + user.getId() + "-" + user.getVersion())) {
+            log.info("User data for ID {} has not been modified", userId);
+            return null;
+        }
         log.info("User data for ID {} has been successfully extracted", userId);
         var userToTransfer = mapper.toDto(user);
         return ResponseEntity.status(HttpStatus.OK).body(userToTransfer);
@@ -102,14 +126,52 @@ public class UserController {
     /**
      * Просмотр списка всех пользователей.
      * Endpoint: GET /users
+     * Массив {@link UserDto} пишется в ответ по мере чтения курсора, поэтому расход памяти
+     * не зависит от числа пользователей. Для постраничного просмотра используется {@link #getUsers}.
      *
+     * @return {@link ResponseEntity} с потоковым телом ответа и статусом {@link HttpStatus#OK}
+     */
+    @GetMapping(params = {"!size", "!after"})
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                service.forEachUser(user -> {
+                    try {
+                        generator.writeObject(mapper.toDto(user));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+            log.info("List of all users has been successfully streamed");
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Постраничный просмотр пользователей.
+     * Endpoint: GET /users?after={userId}&size={size}
+     * Пользователи упорядочены по идентификатору. Если страница заполнена, ответ содержит
+     * заголовок X-Next-Cursor с идентификатором, который нужно передать в after для следующей страницы.
+     *
+     * @param after идентификатор последнего пользователя предыдущей страницы
+     * @param limit количество записей на странице
      * @return {@link ResponseEntity} содержащий список объектов {@link UserDto} и статус ответа {@link HttpStatus#OK}
      */
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        var users = service.getAllUsers();
-        log.info("List consisting of {} users has been successfully fetched", users.size());
+    public ResponseEntity<List<UserDto>> getUsers(
+            @RequestParam(defaultValue = "0") @Min(0) long after,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(100) int limit
+    ) {
+        var users = service.getUsers(after, limit);
+        log.info("Page consisting of {} users has been successfully fetched", users.size());
         var usersToTransfer = users.stream().map(mapper::toDto).collect(Collectors.toList());
-        return ResponseEntity.status(HttpStatus.OK).body(usersToTransfer);
+        var response = ResponseEntity.status(HttpStatus.OK);
+        if (users.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(users.get(limit - 1).getId()));
+        }
+        return response.body(usersToTransfer);
     }
 }
@@ -2,7 +2,8 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User create(User newUser);
@@ -13,7 +14,9 @@ public interface UserService {
 
     void delete(Long userId);
 
-    Collection<User> getAllUsers();
+    List<User> getUsers(Long afterId, int limit);
+
+    void forEachUser(Consumer<User> action);
 
     void validate(Long userId);
 }
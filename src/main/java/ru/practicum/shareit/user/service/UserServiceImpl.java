@@ -2,23 +2,29 @@ package ru.practicum.shareit.user.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.cache.IdentityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserJpaRepository;
 
 import javax.transaction.Transactional;
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Qualifier("UserServiceImpl")
 public class UserServiceImpl implements UserService {
 
     private final UserJpaRepository userRepository;
+    private final IdentityCache<User> userCache;
 
     @Autowired
-    public UserServiceImpl(UserJpaRepository userRepository) {
+    public UserServiceImpl(UserJpaRepository userRepository, IdentityCache<User> userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     @Override
@@ -32,6 +38,7 @@ public class UserServiceImpl implements UserService {
         User existingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         updateUserInfo(existingUser, newInfo);
+        userCache.invalidate(userId);
         return existingUser;
     }
 
@@ -46,24 +53,38 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getById(Long userId) {
-        return userRepository.findById(userId)
+        return userCache.get(userId, userRepository::findById)
                 .orElseThrow(() -> new NotFoundException("User not found"));
     }
 
     @Override
     public void delete(Long userId) {
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
     }
 
+    /**
+     * Страница пользователей по возрастанию идентификатора, начиная после {@code afterId}.
+     * Поиск по ключу не зависит от номера страницы, в отличие от OFFSET.
+     */
     @Override
-    public Collection<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<User> getUsers(Long afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, limit));
     }
 
+    /**
+     * Передаёт всех пользователей в {@code action} по одному, читая их курсором в рамках одной транзакции.
+     */
     @Override
-    public void validate(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException("User not found");
+    @Transactional
+    public void forEachUser(Consumer<User> action) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(action);
         }
     }
+
+    @Override
+    public void validate(Long userId) {
+        getById(userId);
+    }
 }
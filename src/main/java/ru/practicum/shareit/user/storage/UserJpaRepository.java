@@ -1,10 +1,30 @@
 package ru.practicum.shareit.user.storage;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+
 @Repository
 public interface UserJpaRepository extends JpaRepository<User, Long> {
 
+    List<User> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    /**
+     * Все пользователи по возрастанию идентификатора. Выражение конструктора возвращает
+     * неуправляемые копии, поэтому контекст персистентности не растёт при чтении курсора.
+     */
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.shareit.user.model.User(u.id, u.email, u.name, u.version) " +
+            "FROM User u " +
+            "ORDER BY u.id")
+    Stream<User> streamAll();
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class Transactions {
+
+    private Transactions() {
+    }
+
+    /**
+     * Выполняет действие после успешного коммита текущей транзакции.
+     * Если транзакция не активна, действие выполняется сразу.
+     * Используется для обновления in-memory структур, которые не должны видеть откатившиеся изменения.
+     *
+     * @param action действие, которое нужно выполнить
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+CREATE TABLE item_booking_summary
+(
+    item_id         BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    last_start_date TIMESTAMP,
+    last_end_date   TIMESTAMP,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start_date TIMESTAMP,
+    next_end_date   TIMESTAMP,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES item (id)
+);
+
+CREATE INDEX idx_item_booking_summary_next_start ON item_booking_summary (next_start_date);
@@ -0,0 +1,12 @@
+-- Бронирования пользователя: BookingSpecification.byBookerId с сортировкой от новых к старым
+-- и haveUserBookedItem по booker_id + item_id.
+CREATE INDEX idx_booking_booker_start ON booking (booker_id, start_date DESC);
+
+-- Подзапросы последнего и следующего бронирования вещи и проверка пересечений периодов.
+CREATE INDEX idx_booking_item_status_start ON booking (item_id, status, start_date);
+
+-- BookingSpecification.byOwnerId и список вещей владельца.
+CREATE INDEX idx_item_owner ON item (owner_id);
+
+-- Отзывы к вещи и к списку вещей.
+CREATE INDEX idx_comment_item ON comment (item_id);
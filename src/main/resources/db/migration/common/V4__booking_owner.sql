@@ -0,0 +1,11 @@
+-- Владелец вещи копируется в бронирование, чтобы выборки владельца не соединялись с item.
+-- Владелец вещи не меняется после её создания, поэтому копия не расходится с item.owner_id.
+ALTER TABLE booking ADD COLUMN owner_id BIGINT;
+
+UPDATE booking SET owner_id = (SELECT i.owner_id FROM item i WHERE i.id = booking.item_id);
+
+ALTER TABLE booking ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE booking ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+
+CREATE INDEX idx_booking_owner_start ON booking (owner_id, start_date DESC);
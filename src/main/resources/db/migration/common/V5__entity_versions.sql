@@ -0,0 +1,10 @@
+-- Версии строк для оптимистичных блокировок и ETag в условных GET-запросах.
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE item ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE item_request ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE booking ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE item_booking_summary ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
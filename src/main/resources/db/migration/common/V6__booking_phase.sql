@@ -0,0 +1,21 @@
+-- Фаза бронирования относительно текущего времени: FUTURE, CURRENT или PAST.
+-- Хранится в строке и сдвигается планировщиком, чтобы фильтры state=CURRENT/PAST/FUTURE были равенством по индексу.
+ALTER TABLE booking ADD COLUMN phase VARCHAR(16);
+
+UPDATE booking SET phase = CASE
+    WHEN start_date > CURRENT_TIMESTAMP THEN 'FUTURE'
+    WHEN end_date > CURRENT_TIMESTAMP THEN 'CURRENT'
+    ELSE 'PAST'
+END;
+
+ALTER TABLE booking ALTER COLUMN phase SET NOT NULL;
+
+-- Фильтры по фазе в списках бронирований пользователя и владельца.
+CREATE INDEX idx_booking_booker_phase_start ON booking (booker_id, phase, start_date DESC);
+
+CREATE INDEX idx_booking_owner_phase_start ON booking (owner_id, phase, start_date DESC);
+
+-- Очередь ближайших переходов для планировщика: начала будущих и окончания текущих бронирований.
+CREATE INDEX idx_booking_phase_start ON booking (phase, start_date);
+
+CREATE INDEX idx_booking_phase_end ON booking (phase, end_date);
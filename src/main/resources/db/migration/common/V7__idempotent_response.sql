@@ -0,0 +1,15 @@
+-- Ответы на POST-запросы с заголовком Idempotency-Key. Повтор запроса с тем же ключом получает сохранённый ответ.
+-- Строки старше shareit.idempotency.ttl удаляются по расписанию.
+CREATE TABLE idempotent_response
+(
+    idempotency_key VARCHAR(255) NOT NULL,
+    user_id         BIGINT       NOT NULL,
+    request_path    VARCHAR(255) NOT NULL,
+    status          INTEGER      NOT NULL,
+    content_type    VARCHAR(255),
+    body            TEXT,
+    created         TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_idempotent_response PRIMARY KEY (idempotency_key, user_id, request_path)
+);
+
+CREATE INDEX idx_idempotent_response_created ON idempotent_response (created);
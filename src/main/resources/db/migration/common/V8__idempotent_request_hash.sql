@@ -0,0 +1,3 @@
+-- Хэш тела запроса, на который сохранён ответ: повтор ключа с другим телом отклоняется.
+-- У строк, сохранённых до миграции, хэша нет, и для них тело не сверяется.
+ALTER TABLE idempotent_response ADD COLUMN request_hash VARCHAR(64);
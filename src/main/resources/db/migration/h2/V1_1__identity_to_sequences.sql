@@ -0,0 +1,27 @@
+-- Идентификаторы выдаются последовательностями с шагом 50 (allocationSize сущностей), а не IDENTITY:
+-- Hibernate резервирует блок идентификаторов одним обращением и может группировать INSERT в пакеты.
+-- Последовательность начинается с MAX(id) + 50, чтобы первый выданный блок не пересекался с существующими строками.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+
+ALTER TABLE item ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE item_seq INCREMENT BY 50;
+ALTER SEQUENCE item_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM item);
+
+ALTER TABLE comment ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE comment_seq INCREMENT BY 50;
+ALTER SEQUENCE comment_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM comment);
+
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE booking_seq INCREMENT BY 50;
+ALTER SEQUENCE booking_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM booking);
+
+ALTER TABLE item_request ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE item_request_seq INCREMENT BY 50;
+ALTER SEQUENCE item_request_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM item_request);
+
+ALTER TABLE item_response ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE item_response_seq INCREMENT BY 50;
+ALTER SEQUENCE item_response_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM item_response);
@@ -0,0 +1,27 @@
+-- Идентификаторы выдаются последовательностями с шагом 50 (allocationSize сущностей), а не IDENTITY:
+-- Hibernate резервирует блок идентификаторов одним обращением и может группировать INSERT в пакеты.
+-- Последовательность начинается с MAX(id) + 50, чтобы первый выданный блок не пересекался с существующими строками.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+
+ALTER TABLE item ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE item_seq INCREMENT BY 50;
+SELECT setval('item_seq', COALESCE(MAX(id), 0) + 50, false) FROM item;
+
+ALTER TABLE comment ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE comment_seq INCREMENT BY 50;
+SELECT setval('comment_seq', COALESCE(MAX(id), 0) + 50, false) FROM comment;
+
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE booking_seq INCREMENT BY 50;
+SELECT setval('booking_seq', COALESCE(MAX(id), 0) + 50, false) FROM booking;
+
+ALTER TABLE item_request ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE item_request_seq INCREMENT BY 50;
+SELECT setval('item_request_seq', COALESCE(MAX(id), 0) + 50, false) FROM item_request;
+
+ALTER TABLE item_response ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE item_response_seq INCREMENT BY 50;
+SELECT setval('item_response_seq', COALESCE(MAX(id), 0) + 50, false) FROM item_response;
@@ -0,0 +1,4 @@
+-- Ожидающие подтверждения бронирования составляют малую часть таблицы,
+-- поэтому частичный индекс заметно меньше полного по status.
+-- H2 частичные индексы не поддерживает, там эти запросы обслуживает idx_booking_item_status_start.
+CREATE INDEX idx_booking_waiting ON booking (item_id, start_date) WHERE status = 'WAITING';
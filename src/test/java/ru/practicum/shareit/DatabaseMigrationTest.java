@@ -0,0 +1,154 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что миграции применяются и что запросы по бронированиям используют индексы из них.
+ * Планы запросов снимаются через EXPLAIN встроенной H2 после ANALYZE на синтетических данных,
+ * которые заполняются один раз на класс, так как ANALYZE фиксирует транзакцию теста:
+ * на пустых таблицах оптимизатор не отличает составные индексы от индексов внешних ключей, которые H2 создаёт сама.
+ * По той же причине для выборок по booker_id и owner_id проверяется только отсутствие полного сканирования:
+ * в H2 их обслуживают индексы внешних ключей, в PostgreSQL - индексы из миграции V2.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DatabaseMigrationTest {
+
+    private static final int USERS = 50;
+    private static final int ITEMS = 200;
+    private static final int BOOKINGS_PER_ITEM = 20;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "User " + userId, "user" + userId + "@example.com"});
+        }
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            items.add(new Object[]{itemId, itemId % USERS + 1, "Item " + itemId, true});
+            for (int index = 0; index < BOOKINGS_PER_ITEM; index++) {
+                long bookingId = (itemId - 1) * BOOKINGS_PER_ITEM + index + 1;
+                String status = index == 0 ? "WAITING" : "APPROVED";
+                bookings.add(new Object[]{bookingId, itemId, itemId % USERS + 1, bookingId % USERS + 1,
+                        Timestamp.valueOf(now.plusDays(index)), Timestamp.valueOf(now.plusDays(index).plusHours(1)), status,
+                        index == 0 ? "CURRENT" : "FUTURE"});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO item (id, owner_id, name, available) VALUES (?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO booking " +
+                "(id, item_id, owner_id, booker_id, start_date, end_date, status, phase) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM booking");
+        jdbcTemplate.execute("DELETE FROM item");
+        jdbcTemplate.execute("DELETE FROM users");
+    }
+
+    @Test
+    void migrate_ShouldApplyAllMigrations() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("8");
+    }
+
+    @Test
+    void migrate_ShouldReplaceIdentityWithSequences() {
+        List<String> sequences = jdbcTemplate.queryForList(
+                "SELECT LOWER(sequence_name) FROM information_schema.sequences", String.class);
+        List<String> identityColumns = jdbcTemplate.queryForList(
+                "SELECT LOWER(table_name) FROM information_schema.columns WHERE is_identity = 'YES'", String.class);
+
+        assertThat(sequences).contains("users_seq", "item_seq", "comment_seq", "booking_seq",
+                "item_request_seq", "item_response_seq");
+        assertThat(identityColumns).doesNotContain("users", "item", "comment", "booking",
+                "item_request", "item_response");
+    }
+
+    @Test
+    void migrate_ShouldCreateBookingIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_name IN ('BOOKING', 'ITEM')",
+                String.class);
+
+        assertThat(indexes).contains("idx_booking_booker_start", "idx_booking_item_status_start", "idx_item_owner",
+                "idx_booking_owner_start", "idx_booking_booker_phase_start", "idx_booking_owner_phase_start",
+                "idx_booking_phase_start", "idx_booking_phase_end");
+    }
+
+    @Test
+    void bookerBookingsByPhase_ShouldUseBookerPhaseIndex() {
+        assertThat(explain("SELECT * FROM booking WHERE booker_id = 1 AND phase = 'FUTURE' ORDER BY start_date DESC"))
+                .containsIgnoringCase("idx_booking_booker_phase_start");
+    }
+
+    @Test
+    void nearestStart_ShouldUsePhaseStartIndex() {
+        assertThat(explain("SELECT MIN(start_date) FROM booking WHERE phase = 'FUTURE'"))
+                .containsIgnoringCase("idx_booking_phase_start");
+    }
+
+    @Test
+    void bookerBookings_ShouldNotScanTable() {
+        assertThat(explain("SELECT * FROM booking WHERE booker_id = 1 ORDER BY start_date DESC"))
+                .containsIgnoringCase("booker_id =")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void lastBookingSubquery_ShouldUseItemStatusStartIndex() {
+        assertThat(explain("SELECT MAX(start_date) FROM booking " +
+                "WHERE item_id = 1 AND status = 'APPROVED' AND start_date <= CURRENT_TIMESTAMP"))
+                .containsIgnoringCase("idx_booking_item_status_start");
+    }
+
+    @Test
+    void waitingBookings_ShouldUseItemStatusStartIndex() {
+        assertThat(explain("SELECT * FROM booking WHERE status = 'WAITING' AND item_id = 1"))
+                .containsIgnoringCase("idx_booking_item_status_start");
+    }
+
+    @Test
+    void ownerBookings_ShouldNotScanTable() {
+        assertThat(explain("SELECT * FROM booking WHERE owner_id = 1 ORDER BY start_date DESC"))
+                .containsIgnoringCase("owner_id =")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void ownerItems_ShouldNotScanTable() {
+        assertThat(explain("SELECT * FROM item WHERE owner_id = 1"))
+                .containsIgnoringCase("owner_id =")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
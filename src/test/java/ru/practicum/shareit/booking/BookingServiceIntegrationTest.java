@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,8 +9,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingDecision;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.ExtendedItem;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -16,6 +22,8 @@ import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -98,6 +106,61 @@ public class BookingServiceIntegrationTest {
         assertEquals(BookingStatus.APPROVED, retrievedBooking.getStatus());
     }
 
+    @Test
+    void updateStatuses_ShouldDecideWholeQueueInFewStatements() {
+        Booking first = createBooking(1, 2);
+        Booking overlapping = createBooking(1, 3);
+        Booking later = createBooking(5, 6);
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDecision> decisions = bookingService.updateStatuses(savedOwner.getId(),
+                List.of(first.getId(), overlapping.getId(), later.getId(), -1L), true);
+        entityManager.flush();
+
+        assertEquals(List.of(
+                new BookingDecision(first.getId(), BookingDecision.Outcome.UPDATED, BookingStatus.APPROVED),
+                new BookingDecision(overlapping.getId(), BookingDecision.Outcome.OVERLAPS, BookingStatus.WAITING),
+                new BookingDecision(later.getId(), BookingDecision.Outcome.UPDATED, BookingStatus.APPROVED),
+                new BookingDecision(-1L, BookingDecision.Outcome.NOT_FOUND, null)), decisions);
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "Expected a few statements, got " + statistics.getPrepareStatementCount());
+        entityManager.clear();
+        assertEquals(BookingStatus.APPROVED, entityManager.find(Booking.class, first.getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, entityManager.find(Booking.class, overlapping.getId()).getStatus());
+        assertEquals(first.getId(), itemService.getExtendedItem(savedItem, savedOwner.getId()).getNextBooking().getId());
+
+        List<BookingDecision> repeated = bookingService.updateStatuses(savedUser.getId(), List.of(first.getId()), false);
+        assertEquals(BookingDecision.Outcome.NOT_FOUND, repeated.get(0).getOutcome());
+    }
+
+    private Booking createBooking(int startHours, int endHours) {
+        Booking booking = new Booking();
+        booking.setItem(savedItem);
+        booking.setStart(LocalDateTime.now().plusHours(startHours));
+        booking.setEnd(LocalDateTime.now().plusHours(endHours));
+        return bookingService.create(savedUser.getId(), booking);
+    }
+
+    @Test
+    void updateBookingStatus_ShouldUpdateItemBookingSummary() {
+        Booking booking = new Booking();
+        booking.setItem(savedItem);
+        booking.setStart(LocalDateTime.now().plusHours(1));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
+        Booking createdBooking = bookingService.create(savedUser.getId(), booking);
+        assertNull(itemService.getExtendedItem(savedItem, savedOwner.getId()).getNextBooking());
+
+        bookingService.updateStatus(savedOwner.getId(), createdBooking.getId(), true);
+
+        ExtendedItem ownerView = itemService.getExtendedItem(savedItem, savedOwner.getId());
+        assertNull(ownerView.getLastBooking());
+        assertEquals(createdBooking.getId(), ownerView.getNextBooking().getId());
+        assertEquals(savedUser.getId(), ownerView.getNextBooking().getBookerId());
+        assertNull(itemService.getExtendedItem(savedItem, savedUser.getId()).getNextBooking());
+    }
+
     @Test
     void getUserBookings_ShouldReturnBookings() {
         Booking booking = new Booking();
@@ -107,10 +170,10 @@ public class BookingServiceIntegrationTest {
         booking.setEnd(LocalDateTime.now().plusHours(2));
         bookingService.create(savedUser.getId(), booking);
 
-        List<Booking> userBookings = bookingService.getUserBookings(savedUser.getId(), "ALL", 0, 10);
+        List<BookingView> userBookings = bookingService.getUserBookings(savedUser.getId(), "ALL", 0, 10);
         assertNotNull(userBookings);
         assertEquals(1, userBookings.size());
-        assertEquals(savedUser.getId(), userBookings.get(0).getBooker().getId());
+        assertEquals(savedUser.getId(), userBookings.get(0).getBookerId());
     }
 
     @Test
@@ -122,10 +185,52 @@ public class BookingServiceIntegrationTest {
         booking.setEnd(LocalDateTime.now().plusHours(2));
         bookingService.create(savedUser.getId(), booking);
 
-        List<Booking> ownerBookings = bookingService.getOwnerBookings(savedOwner.getId(), "ALL", 0, 10);
+        List<BookingView> ownerBookings = bookingService.getOwnerBookings(savedOwner.getId(), "ALL", 0, 10);
         assertNotNull(ownerBookings);
         assertEquals(1, ownerBookings.size());
-        assertEquals(savedItem.getId(), ownerBookings.get(0).getItem().getId());
+        assertEquals(savedItem.getId(), ownerBookings.get(0).getItemId());
+        assertEquals(savedItem.getName(), ownerBookings.get(0).getItemName());
+    }
+
+    @Test
+    void getOwnerBookings_WithCursor_ShouldReturnNextPage() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setItem(savedItem);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            bookingService.create(savedUser.getId(), booking);
+        }
+
+        List<BookingView> firstPage = bookingService.getOwnerBookings(savedOwner.getId(), "ALL", 0, 2);
+        BookingCursor cursor = BookingCursor.of(firstPage.get(1));
+        List<BookingView> secondPage = bookingService.getOwnerBookings(savedOwner.getId(), "ALL", cursor, 2);
+        List<BookingView> userPage = bookingService.getUserBookings(savedUser.getId(), "FUTURE", cursor, 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(start.plusDays(2), firstPage.get(0).getStart());
+        assertEquals(1, secondPage.size());
+        assertEquals(start, secondPage.get(0).getStart());
+        assertEquals(secondPage, userPage);
+    }
+
+    @Test
+    void exportOwnerBookings_ShouldStreamAllBookingsNewestFirst() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setItem(savedItem);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            bookingService.create(savedUser.getId(), booking);
+        }
+
+        List<BookingView> exported = new ArrayList<>();
+        bookingService.exportOwnerBookings(savedOwner.getId(), "FUTURE").forEach(exported::add);
+
+        assertEquals(bookingService.getOwnerBookings(savedOwner.getId(), "FUTURE", 0, 10), exported);
+        assertEquals(start.plusDays(2), exported.get(0).getStart());
     }
 
     @Test
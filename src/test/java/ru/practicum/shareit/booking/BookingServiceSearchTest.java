@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -91,9 +92,9 @@ public class BookingServiceSearchTest {
     }
 
     private void assertBookingsState(String state, int expectedSize) {
-        List<Booking> bookings1 = bookingService.getUserBookings(savedUser.getId(), state, 0, 10);
+        List<BookingView> bookings1 = bookingService.getUserBookings(savedUser.getId(), state, 0, 10);
         assertEquals(expectedSize, bookings1.size(), "Unexpected number of bookings for state: " + state);
-        List<Booking> bookings2 = bookingService.getOwnerBookings(savedOwner.getId(), state, 0, 10);
+        List<BookingView> bookings2 = bookingService.getOwnerBookings(savedOwner.getId(), state, 0, 10);
         assertEquals(expectedSize, bookings2.size(), "Unexpected number of bookings for state: " + state);
         List<Booking> bookings3 = bookingService.getItemBookings(savedItem.getId(), state, 0, 10);
         assertEquals(expectedSize, bookings3.size(), "Unexpected number of bookings for state: " + state);
@@ -6,29 +6,44 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.executor.ExecutorConfig;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingDecision;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookingController.class)
+@Import(ExecutorConfig.class)
 public class BookingControllerTest {
 
     @Autowired
@@ -44,6 +59,7 @@ public class BookingControllerTest {
     private ObjectMapper objectMapper;
 
     private Booking booking;
+    private BookingView bookingView;
     private BookingResponseDto bookingResponseDto;
 
 
@@ -66,6 +82,8 @@ public class BookingControllerTest {
         item.setAvailable(true);
         item.setOwnerId(2L);
         booking.setItem(item);
+        bookingView = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), user.getId());
 
         bookingResponseDto = new BookingResponseDto();
         bookingResponseDto.setId(booking.getId());
@@ -79,10 +97,11 @@ public class BookingControllerTest {
         when(bookingService.updateStatus(anyLong(), anyLong(), anyBoolean())).thenReturn(booking);
         when(bookingMapper.toBooking(any(BookingRequestDto.class))).thenReturn(booking);
         when(bookingMapper.toResponseDto(booking)).thenReturn(bookingResponseDto);
+        when(bookingMapper.toResponseDto(bookingView)).thenReturn(bookingResponseDto);
         when(bookingService.getOwnerBookings(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(Collections.singletonList(booking));
+                .thenReturn(Collections.singletonList(bookingView));
         when(bookingService.getUserBookings(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(Collections.singletonList(booking));
+                .thenReturn(Collections.singletonList(bookingView));
         when(bookingService.getOwnersBookingById(anyLong(), anyLong())).thenReturn(booking);
     }
 
@@ -106,6 +125,31 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).create(anyLong(), any(Booking.class));
     }
 
+    @Test
+    void createBookings_ShouldReturnCreated() throws Exception {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(bookingService.createAll(anyLong(), anyList())).thenReturn(List.of(booking, booking));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(List.of(bookingRequestDto, bookingRequestDto))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("WAITING"));
+        verify(bookingService).createAll(eq(1L), argThat(bookings -> bookings.size() == 2));
+    }
+
+    @Test
+    void createBookings_EmptyList_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).createAll(anyLong(), anyList());
+    }
+
     @Test
     void createBooking_InvalidDates_ShouldReturnBadRequest() throws Exception {
         BookingRequestDto bookingRequestDto = new BookingRequestDto(1L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(1));
@@ -172,6 +216,51 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).updateStatus(anyLong(), anyLong(), anyBoolean());
     }
 
+    @Test
+    void updateBookingStatus_ShouldReturnConflict_WhenStatusChangedConcurrently() throws Exception {
+        when(bookingService.updateStatus(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new ConflictException("Booking status has been changed concurrently"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", 1)
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Booking status has been changed concurrently"));
+    }
+
+    @Test
+    void updateBookingStatuses_ShouldReturnDecisionPerBooking() throws Exception {
+        BookingDecision updated = new BookingDecision(1L, BookingDecision.Outcome.UPDATED, BookingStatus.APPROVED);
+        BookingDecision notFound = new BookingDecision(2L, BookingDecision.Outcome.NOT_FOUND, null);
+        when(bookingService.updateStatuses(1L, List.of(1L, 2L), true)).thenReturn(List.of(updated, notFound));
+        when(bookingMapper.toDecisionDto(updated))
+                .thenReturn(new BookingDecisionDto(1L, BookingDecision.Outcome.UPDATED, BookingStatus.APPROVED));
+        when(bookingMapper.toDecisionDto(notFound))
+                .thenReturn(new BookingDecisionDto(2L, BookingDecision.Outcome.NOT_FOUND, null));
+
+        mockMvc.perform(patch("/bookings/status")
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    void updateBookingStatuses_EmptyList_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/bookings/status")
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).updateStatuses(anyLong(), anyList(), anyBoolean());
+    }
+
     @Test
     void getBooking_ShouldReturnOk() throws Exception {
 
@@ -192,7 +281,7 @@ public class BookingControllerTest {
     @Test
     void getUserBookings_ShouldReturnOk() throws Exception {
 
-        mockMvc.perform(get("/bookings")
+        performAsync(get("/bookings")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -237,7 +326,7 @@ public class BookingControllerTest {
     @Test
     void getOwnerBookings_ShouldReturnOk() throws Exception {
 
-        mockMvc.perform(get("/bookings/owner")
+        performAsync(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -251,4 +340,91 @@ public class BookingControllerTest {
 
         verify(bookingService, times(1)).getOwnerBookings(anyLong(), anyString(), anyInt(), anyInt());
     }
+
+    @Test
+    void exportOwnerBookings_ShouldStreamNdjson() throws Exception {
+        when(bookingService.exportOwnerBookings(1L, "ALL")).thenReturn(action -> {
+            action.accept(bookingView);
+            action.accept(bookingView);
+        });
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = objectMapper.writeValueAsString(bookingResponseDto);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void exportOwnerBookings_ShouldUseExportTimeout() throws Exception {
+        when(bookingService.exportOwnerBookings(1L, "ALL")).thenReturn(action -> {
+        });
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(Duration.ofMinutes(10).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void exportOwnerBookings_UnknownOwner_ShouldReturnNotFoundBeforeStreaming() throws Exception {
+        when(bookingService.exportOwnerBookings(anyLong(), anyString()))
+                .thenThrow(new NotFoundException("User not found"));
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUserBookings_WithCursor_ShouldSeekAfterCursor() throws Exception {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusDays(5), 7L);
+        when(bookingService.getUserBookings(anyLong(), anyString(), eq(cursor), anyInt()))
+                .thenReturn(Collections.singletonList(bookingView));
+
+        performAsync(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("after", cursor.encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(bookingView).encode()));
+
+        verify(bookingService, times(1)).getUserBookings(1L, "ALL", cursor, 1);
+        verify(bookingService, times(0)).getUserBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getOwnerBookings_PartialPage_ShouldNotReturnNextCursor() throws Exception {
+        performAsync(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getOwnerBookings_InvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, times(0)).getOwnerBookings(anyLong(), anyString(), any(BookingCursor.class), anyInt());
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -109,4 +110,19 @@ class BookingMapperTest {
         assertNotNull(bookingShortDto);
         assertEquals(booking.getBooker().getId(), bookingShortDto.getBookerId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testViewToResponseDto() {
+        BookingView view = new BookingView(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1),
+                BookingStatus.APPROVED, 2L, "Drill", 3L);
+
+        BookingResponseDto dto = bookingMapper.toResponseDto(view);
+
+        assertEquals(1L, dto.getId());
+        assertEquals(view.getStart(), dto.getStart());
+        assertEquals(BookingStatus.APPROVED, dto.getStatus());
+        assertEquals(2L, dto.getItem().getId());
+        assertEquals("Drill", dto.getItem().getName());
+        assertEquals(3L, dto.getBooker().getId());
+    }
+}
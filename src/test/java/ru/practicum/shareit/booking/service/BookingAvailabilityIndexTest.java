@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class BookingAvailabilityIndexTest {
+
+    @Mock
+    private BookingJpaRepository bookingRepository;
+
+    @InjectMocks
+    private BookingAvailabilityIndex index;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void isFree_ShouldReturnTrue_WhenItemHasNoBookings() {
+        assertTrue(index.isFree(1L, base, base.plusHours(1)));
+    }
+
+    @Test
+    void isFree_ShouldDetectOverlaps() {
+        index.add(new BookingInterval(1L, 1L, base, base.plusHours(2)));
+
+        assertFalse(index.isFree(1L, base.plusHours(1), base.plusHours(3)));
+        assertFalse(index.isFree(1L, base.minusHours(1), base.plusMinutes(1)));
+        assertTrue(index.isFree(1L, base.plusHours(2), base.plusHours(3)));
+        assertTrue(index.isFree(1L, base.minusHours(1), base));
+        assertTrue(index.isFree(2L, base, base.plusHours(2)));
+    }
+
+    @Test
+    void add_EndedInterval_ShouldNotKeepEmptyTimeline() {
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        index.add(new BookingInterval(1L, 1L, past, past.plusHours(2)));
+        index.add(new BookingInterval(2L, 2L, base, base.plusHours(2)));
+
+        assertEquals(1, index.size());
+        assertTrue(index.isFree(1L, past, past.plusHours(2)));
+        assertFalse(index.isFree(2L, base, base.plusHours(1)));
+    }
+
+    @Test
+    void nextFreeSlot_ShouldSkipGapsThatAreTooShort() {
+        index.add(new BookingInterval(1L, 1L, base, base.plusHours(2)));
+        index.add(new BookingInterval(2L, 1L, base.plusHours(3), base.plusHours(5)));
+
+        assertEquals(base.plusHours(2), index.nextFreeSlot(1L, base.plusHours(1), Duration.ofHours(1)));
+        assertEquals(base.plusHours(5), index.nextFreeSlot(1L, base.plusHours(1), Duration.ofHours(2)));
+        assertEquals(base.minusHours(2), index.nextFreeSlot(1L, base.minusHours(2), Duration.ofHours(1)));
+    }
+
+    @Test
+    void warmUp_ShouldLoadApprovedBookings() {
+        when(bookingRepository.findApprovedIntervalsEndingAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, base, base.plusHours(2))));
+
+        index.warmUp();
+
+        assertFalse(index.isFree(1L, base, base.plusHours(1)));
+    }
+}
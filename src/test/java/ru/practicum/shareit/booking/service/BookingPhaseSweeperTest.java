@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.verify;
+
+class BookingPhaseSweeperTest {
+
+    @Mock
+    private BookingJpaRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingPhaseSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sweeper = new BookingPhaseSweeper(bookingRepository, transactionManager);
+    }
+
+    @Test
+    void sweep_ShouldAdvancePhases() {
+        LocalDateTime now = LocalDateTime.now();
+
+        sweeper.sweep(now);
+
+        verify(bookingRepository).markEndedAsPast(now);
+        verify(bookingRepository).markStartedAsCurrent(now);
+    }
+}
@@ -5,13 +5,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecision;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
@@ -21,6 +24,7 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +42,12 @@ class BookingServiceImplTest {
     @Mock
     private UserServiceImpl userService;
 
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private BookingSummaryService summaryService;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -72,8 +82,11 @@ class BookingServiceImplTest {
         booking.setId(1L);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
+        booking.setVersion(0L);
 
-        pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+        pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        when(availabilityIndex.isFree(anyLong(), any(), any())).thenReturn(true);
     }
 
     @Test
@@ -86,11 +99,59 @@ class BookingServiceImplTest {
 
         assertNotNull(savedBooking);
         assertEquals(BookingStatus.WAITING, savedBooking.getStatus());
+        assertEquals(item.getOwnerId(), savedBooking.getOwnerId());
         verify(userService, times(1)).validate(1L);
         verify(itemService, times(1)).validate(1L);
         verify(bookingRepository, times(1)).save(newBooking);
     }
 
+    @Test
+    void createAll_ShouldSaveAllBookingsAtOnce() {
+        Booking secondBooking = new Booking();
+        secondBooking.setItem(item);
+        secondBooking.setStart(LocalDateTime.now().plusDays(3));
+        secondBooking.setEnd(LocalDateTime.now().plusDays(4));
+        List<Booking> bookings = List.of(newBooking, secondBooking);
+        when(userService.getById(1L)).thenReturn(user);
+        when(itemService.getById(1L)).thenReturn(item);
+        when(bookingRepository.saveAll(bookings)).thenReturn(bookings);
+
+        List<Booking> savedBookings = bookingService.createAll(1L, bookings);
+
+        assertEquals(2, savedBookings.size());
+        assertTrue(savedBookings.stream().allMatch(saved -> saved.getStatus() == BookingStatus.WAITING
+                && saved.getBooker() == user));
+        verify(bookingRepository, times(1)).saveAll(bookings);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createAll_ShouldSaveNothing_WhenAnyBookingIsInvalid() {
+        Booking ownBooking = new Booking();
+        Item ownItem = new Item();
+        ownItem.setId(2L);
+        ownItem.setAvailable(true);
+        ownItem.setOwnerId(1L);
+        ownBooking.setItem(ownItem);
+        when(userService.getById(1L)).thenReturn(user);
+        when(itemService.getById(1L)).thenReturn(item);
+        when(itemService.getById(2L)).thenReturn(ownItem);
+
+        assertThrows(NotFoundException.class, () -> bookingService.createAll(1L, List.of(newBooking, ownBooking)));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void create_ShouldThrowIllegalArgumentException_WhenItemAlreadyBooked() {
+        when(userService.getById(1L)).thenReturn(user);
+        when(itemService.getById(1L)).thenReturn(item);
+        when(availabilityIndex.isFree(eq(1L), any(), any())).thenReturn(false);
+        when(availabilityIndex.nextFreeSlot(eq(1L), any(), any())).thenReturn(newBooking.getEnd());
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.create(1L, newBooking));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void create_ShouldThrowNotFoundException_bookerIsOwner() {
         when(userService.getById(2L)).thenReturn(owner);
@@ -114,13 +175,77 @@ class BookingServiceImplTest {
     @Test
     void updateStatus_ShouldUpdateBookingStatus() {
         item.setOwnerId(2L);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        Booking stored = new Booking();
+        stored.setId(1L);
+        stored.setItem(item);
+        stored.setStart(booking.getStart());
+        stored.setEnd(booking.getEnd());
+        stored.setStatus(BookingStatus.APPROVED);
+        stored.setVersion(1L);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking), Optional.of(stored));
+        when(bookingRepository.updateStatusIfWaiting(1L, BookingStatus.APPROVED)).thenReturn(1);
 
         Booking updatedBooking = bookingService.updateStatus(2L, 1L, true);
 
-        assertNotNull(updatedBooking);
+        assertSame(stored, updatedBooking);
         assertEquals(BookingStatus.APPROVED, updatedBooking.getStatus());
-        verify(bookingRepository, times(1)).findById(1L);
+        assertEquals(1L, updatedBooking.getVersion());
+        verify(bookingRepository, times(2)).findById(1L);
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(summaryService, times(1)).onApproved(stored);
+    }
+
+    @Test
+    void updateStatuses_ShouldReportConflict_WhenBookingChangedConcurrently() {
+        Booking other = new Booking();
+        other.setId(2L);
+        other.setItem(item);
+        other.setStatus(BookingStatus.WAITING);
+        other.setVersion(0L);
+        Booking changed = new Booking();
+        changed.setId(2L);
+        changed.setStatus(BookingStatus.APPROVED);
+        changed.setVersion(1L);
+        Booking ours = new Booking();
+        ours.setId(1L);
+        ours.setStatus(BookingStatus.REJECTED);
+        ours.setVersion(1L);
+        when(bookingRepository.findAllByIdInAndOwnerId(List.of(1L, 2L), 2L)).thenReturn(List.of(booking, other));
+        when(bookingRepository.updateStatusesIfWaiting(List.of(1L, 2L), BookingStatus.REJECTED)).thenReturn(1);
+        when(bookingRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(ours, changed));
+
+        List<BookingDecision> decisions = bookingService.updateStatuses(2L, List.of(1L, 2L), false);
+
+        assertEquals(List.of(
+                new BookingDecision(1L, BookingDecision.Outcome.UPDATED, BookingStatus.REJECTED),
+                new BookingDecision(2L, BookingDecision.Outcome.CONFLICT, BookingStatus.APPROVED)), decisions);
+        verify(bookingRepository, never()).findApprovedIntervals(any(), any(), any());
+        verify(summaryService, never()).onApproved(anyCollection());
+    }
+
+    @Test
+    void updateStatus_ShouldThrowConflictException_WhenStatusChangedConcurrently() {
+        item.setOwnerId(2L);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(1L, BookingStatus.REJECTED)).thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> bookingService.updateStatus(2L, 1L, false));
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(summaryService, never()).onApproved(any(Booking.class));
+    }
+
+    @Test
+    void updateStatus_ShouldThrowIllegalArgumentException_WhenApprovedBookingOverlaps() {
+        Booking approvedBooking = new Booking();
+        approvedBooking.setId(2L);
+        approvedBooking.setItem(item);
+        approvedBooking.setStatus(BookingStatus.APPROVED);
+
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findOverlappingBookings(eq(1L), any(), any())).thenReturn(List.of(approvedBooking));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.updateStatus(2L, 1L, true));
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
     }
 
     @Test
@@ -141,6 +266,16 @@ class BookingServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> bookingService.updateStatus(2L, 1L, true));
     }
 
+    @Test
+    void updateStatus_ShouldThrowIllegalArgumentException_WhenBookingIsCanceled() {
+        booking.setStatus(BookingStatus.CANCELED);
+
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.updateStatus(2L, 1L, false));
+        verify(bookingRepository, never()).updateStatusIfWaiting(anyLong(), any());
+    }
+
     @Test
     void getOwnersBookingById_ShouldReturnBooking() {
         booking.setBooker(user);
@@ -169,12 +304,15 @@ class BookingServiceImplTest {
     @Test
     void getUserBookings_ShouldReturnUserBookings() {
         booking.setBooker(user);
+        BookingView view = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), user.getId());
 
         when(userService.getById(1L)).thenReturn(user);
-        when(bookingRepository.findAll(any(Specification.class), eq(pageRequest)))
-                .thenReturn(new PageImpl<>(Collections.singletonList(booking)));
+        when(bookingRepository.findViews(any(Specification.class), eq(pageRequest.getSort()),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize())))
+                .thenReturn(Collections.singletonList(view));
 
-        List<Booking> bookings = bookingService.getUserBookings(1L, "ALL", 0, 10);
+        List<BookingView> bookings = bookingService.getUserBookings(1L, "ALL", 0, 10);
 
         assertNotNull(bookings);
         assertFalse(bookings.isEmpty());
@@ -183,35 +321,39 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void isUserBookedItem_ShouldReturnTrue() {
-        when(bookingRepository.haveUserBookedItem(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(true);
+    void getUserBookings_OffsetNotMultipleOfSize_ShouldNotRoundDownToPage() {
+        bookingService.getUserBookings(1L, "ALL", 7, 5);
+        bookingService.getOwnerBookings(1L, "ALL", 7, 5);
 
-        boolean result = bookingService.isUserBookedItem(1L, 1L);
+        verify(bookingRepository, times(2)).findViews(any(Specification.class), eq(pageRequest.getSort()),
+                eq(7L), eq(5));
+    }
 
-        assertTrue(result);
-        verify(bookingRepository, times(1)).haveUserBookedItem(eq(1L), eq(1L), any(LocalDateTime.class));
+    @Test
+    void getItemBookings_OffsetNotMultipleOfSize_ShouldNotRoundDownToPage() {
+        bookingService.getItemBookings(1L, "ALL", 7, 5);
+
+        verify(bookingRepository, times(1)).findPage(any(Specification.class), eq(pageRequest.getSort()),
+                eq(7L), eq(5));
     }
 
     @Test
-    void getLastBooking_ShouldReturnLastBooking() {
-        when(bookingRepository.getLastBooking(anyLong(), anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Optional.of(booking));
+    void isUserBookedItem_ShouldReturnTrue() {
+        when(bookingRepository.haveUserBookedItem(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(true);
 
-        Optional<Booking> lastBooking = bookingService.getLastBooking(1L, 1L);
+        boolean result = bookingService.isUserBookedItem(1L, 1L);
 
-        assertTrue(lastBooking.isPresent());
-        assertEquals(1L, lastBooking.get().getId());
-        verify(bookingRepository, times(1)).getLastBooking(eq(1L), eq(1L), any(LocalDateTime.class));
+        assertTrue(result);
+        verify(bookingRepository, times(1)).haveUserBookedItem(eq(1L), eq(1L), any(LocalDateTime.class));
     }
 
     @Test
-    void getNextBooking_ShouldReturnNextBooking() {
-        when(bookingRepository.getNextBooking(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(Optional.of(booking));
+    void getBookingSummaries_ShouldDelegateToSummaryService() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        when(summaryService.getSummaries(List.of(1L))).thenReturn(Map.of(1L, summary));
 
-        Optional<Booking> nextBooking = bookingService.getNextBooking(1L, 1L);
+        Map<Long, ItemBookingSummary> summaries = bookingService.getBookingSummaries(List.of(1L));
 
-        assertTrue(nextBooking.isPresent());
-        assertEquals(1L, nextBooking.get().getId());
-        verify(bookingRepository, times(1)).getNextBooking(eq(1L), eq(1L), any(LocalDateTime.class));
+        assertEquals(Map.of(1L, summary), summaries);
     }
 }
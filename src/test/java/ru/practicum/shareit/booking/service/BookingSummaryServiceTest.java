@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryJpaRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BookingSummaryServiceTest {
+
+    @Mock
+    private ItemBookingSummaryJpaRepository summaryRepository;
+
+    @Mock
+    private BookingJpaRepository bookingRepository;
+
+    @Mock
+    private ItemJpaRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingSummaryService summaryService;
+
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        summaryService = new BookingSummaryService(summaryRepository, bookingRepository, itemRepository, transactionManager);
+        when(summaryRepository.saveAll(anyCollection()))
+                .then(invocation -> List.copyOf(invocation.<Collection<ItemBookingSummary>>getArgument(0)));
+
+        item = new Item();
+        item.setId(1L);
+        booker = new User();
+        booker.setId(2L);
+    }
+
+    @Test
+    void onApproved_ShouldCreateSummary_WhenItemHasNone() {
+        Booking booking = booking(10L, LocalDateTime.now().plusDays(1));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        summaryService.onApproved(booking);
+
+        verify(summaryRepository).saveAll(argThat(summaries -> {
+            ItemBookingSummary summary = summaries.iterator().next();
+            return summary.getItemId().equals(1L)
+                    && summary.getLastBooking() == null
+                    && summary.getNextBooking().equals(BookingSnapshot.of(booking));
+        }));
+    }
+
+    @Test
+    void onApproved_ShouldLockItemBeforeLoadingSummary() {
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        summaryService.onApproved(booking(10L, LocalDateTime.now().plusDays(1)));
+
+        InOrder inOrder = inOrder(itemRepository, summaryRepository);
+        inOrder.verify(itemRepository).findAllForUpdate(List.of(1L));
+        inOrder.verify(summaryRepository).findAllById(List.of(1L));
+    }
+
+    @Test
+    void onApproved_ShouldKeepEarlierNextBooking() {
+        BookingSnapshot earlier = BookingSnapshot.of(booking(10L, LocalDateTime.now().plusDays(1)));
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setNextBooking(earlier);
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+
+        summaryService.onApproved(booking(11L, LocalDateTime.now().plusDays(3)));
+
+        assertEquals(earlier, summary.getNextBooking());
+        verify(summaryRepository).saveAll(argThat(summaries -> summaries.iterator().next() == summary));
+    }
+
+    @Test
+    void getSummaries_ShouldNotQueryBookings_WhenSummaryIsNotDue() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setNextBooking(BookingSnapshot.of(booking(10L, LocalDateTime.now().plusDays(1))));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+
+        Map<Long, ItemBookingSummary> summaries = summaryService.getSummaries(List.of(1L));
+
+        assertEquals(Map.of(1L, summary), summaries);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getSummaries_ShouldRecomputeInMemory_WhenNextBookingHasStarted() {
+        Booking started = booking(10L, LocalDateTime.now().minusMinutes(1));
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setNextBooking(BookingSnapshot.of(started));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+        when(bookingRepository.getLastBookings(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(List.of(started));
+        when(bookingRepository.getNextBookings(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(List.of());
+
+        ItemBookingSummary result = summaryService.getSummaries(List.of(1L)).get(1L);
+
+        assertEquals(BookingSnapshot.of(started), result.getLastBooking());
+        assertNull(result.getNextBooking());
+        assertEquals(BookingSnapshot.of(started), summary.getNextBooking());
+        verify(summaryRepository, never()).saveAll(anyCollection());
+        verifyNoInteractions(itemRepository, transactionManager);
+    }
+
+    @Test
+    void getSummaries_ShouldNotQuery_WhenNoItems() {
+        assertTrue(summaryService.getSummaries(List.of()).isEmpty());
+        verifyNoInteractions(summaryRepository, bookingRepository);
+    }
+
+    @Test
+    void buildMissing_ShouldBuildSummariesForItemsWithApprovedBookings() {
+        Booking next = booking(10L, LocalDateTime.now().plusDays(1));
+        when(bookingRepository.findApprovedItemIdsWithoutSummary(any(Pageable.class))).thenReturn(List.of(1L));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        when(bookingRepository.getNextBookings(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(List.of(next));
+
+        summaryService.buildMissing();
+
+        verify(summaryRepository).saveAll(argThat(summaries -> summaries.iterator().next().getNextBooking()
+                .equals(BookingSnapshot.of(next))));
+    }
+
+    private Booking booking(Long id, LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        return booking;
+    }
+}
@@ -5,9 +5,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -55,6 +60,7 @@ class BookingJpaRepositoryTest {
         pastBooking.setStatus(BookingStatus.APPROVED);
         pastBooking.setItem(item);
         pastBooking.setBooker(user);
+        pastBooking.setOwnerId(owner.getId());
         pastBooking.setStart(LocalDateTime.now().minusDays(5));
         pastBooking.setEnd(LocalDateTime.now().minusDays(1));
         entityManager.persist(pastBooking);
@@ -63,12 +69,35 @@ class BookingJpaRepositoryTest {
         futureBooking.setStatus(BookingStatus.APPROVED);
         futureBooking.setItem(item);
         futureBooking.setBooker(user);
+        futureBooking.setOwnerId(owner.getId());
         futureBooking.setStart(LocalDateTime.now().plusDays(1));
         futureBooking.setEnd(LocalDateTime.now().plusDays(5));
         entityManager.persist(futureBooking);
         entityManager.flush();
     }
 
+    @Test
+    void updateStatusIfWaiting_ShouldChangeOnlyWaitingBooking() {
+        Booking waitingBooking = new Booking();
+        waitingBooking.setStatus(BookingStatus.WAITING);
+        waitingBooking.setItem(item);
+        waitingBooking.setBooker(user);
+        waitingBooking.setOwnerId(owner.getId());
+        waitingBooking.setStart(LocalDateTime.now().plusDays(10));
+        waitingBooking.setEnd(LocalDateTime.now().plusDays(11));
+        entityManager.persist(waitingBooking);
+        entityManager.flush();
+
+        int first = bookingJpaRepository.updateStatusIfWaiting(waitingBooking.getId(), BookingStatus.APPROVED);
+        int second = bookingJpaRepository.updateStatusIfWaiting(waitingBooking.getId(), BookingStatus.REJECTED);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        Booking stored = entityManager.find(Booking.class, waitingBooking.getId());
+        assertThat(stored.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(stored.getVersion()).isEqualTo(1L);
+    }
+
     @Test
     @DisplayName("Test isUserBookedItem")
     void isUserBookedItem_ShouldReturnTrue() {
@@ -82,27 +111,56 @@ class BookingJpaRepositoryTest {
     }
 
     @Test
-    @DisplayName("Test getLastBooking")
-    void getLastBooking_ShouldReturnBooking() {
-        Long itemId = item.getId();
-        Long userId = owner.getId();
-        LocalDateTime now = LocalDateTime.now();
+    @DisplayName("Test getLastBookings")
+    void getLastBookings_ShouldReturnBookingPerItem() {
+        List<Booking> bookings = bookingJpaRepository.getLastBookings(List.of(item.getId()), LocalDateTime.now());
 
-        Optional<Booking> booking = bookingJpaRepository.getLastBooking(itemId, userId, now);
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getStart()).isBefore(LocalDateTime.now());
+    }
+
+    @Test
+    void getLastBookings_ShouldSkipBookingStartingAtNow() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking startingNow = new Booking();
+        startingNow.setStatus(BookingStatus.APPROVED);
+        startingNow.setItem(item);
+        startingNow.setBooker(user);
+        startingNow.setOwnerId(owner.getId());
+        startingNow.setStart(now);
+        startingNow.setEnd(now.plusHours(1));
+        startingNow.setPhase(BookingPhase.FUTURE);
+        entityManager.persist(startingNow);
+        entityManager.flush();
 
-        assertThat(booking).isPresent();
+        assertThat(bookingJpaRepository.getLastBookings(List.of(item.getId()), now))
+                .extracting(Booking::getId)
+                .doesNotContain(startingNow.getId());
+        assertThat(bookingJpaRepository.getLastBookings(List.of(item.getId()), now.plusSeconds(1)))
+                .extracting(Booking::getId)
+                .containsExactly(startingNow.getId());
+        assertThat(bookingJpaRepository.markStartedAsCurrent(now)).isZero();
     }
 
     @Test
-    @DisplayName("Test getNextBooking")
-    void getNextBooking_ShouldReturnBooking() {
-        Long itemId = item.getId();
-        Long userId = owner.getId();
-        LocalDateTime now = LocalDateTime.now();
+    @DisplayName("Test getNextBookings")
+    void getNextBookings_ShouldReturnBookingPerItem() {
+        List<Booking> bookings = bookingJpaRepository.getNextBookings(List.of(item.getId()), LocalDateTime.now());
+
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getStart()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Test findApprovedItemIdsWithoutSummary")
+    void findApprovedItemIdsWithoutSummary_ShouldSkipItemsWithSummary() {
+        assertThat(bookingJpaRepository.findApprovedItemIdsWithoutSummary(PageRequest.of(0, 10)))
+                .containsExactly(item.getId());
 
-        Optional<Booking> booking = bookingJpaRepository.getNextBooking(itemId, userId, now);
+        entityManager.persist(new ItemBookingSummary(item.getId()));
+        entityManager.flush();
 
-        assertThat(booking).isPresent();
+        assertThat(bookingJpaRepository.findApprovedItemIdsWithoutSummary(PageRequest.of(0, 10))).isEmpty();
     }
 
     @Test
@@ -128,9 +186,9 @@ class BookingJpaRepositoryTest {
     }
 
     @Test
-    @DisplayName("Test isCurrent")
-    void isCurrent_ShouldReturnCurrentBookings() {
-        Specification<Booking> spec = BookingSpecification.isCurrent();
+    @DisplayName("Test hasPhase CURRENT")
+    void hasPhaseCurrent_ShouldReturnCurrentBookings() {
+        Specification<Booking> spec = BookingSpecification.hasPhase(BookingPhase.CURRENT, LocalDateTime.now());
 
         List<Booking> bookings = bookingJpaRepository.findAll(spec);
 
@@ -138,9 +196,9 @@ class BookingJpaRepositoryTest {
     }
 
     @Test
-    @DisplayName("Test isPast")
-    void isPast_ShouldReturnPastBookings() {
-        Specification<Booking> spec = BookingSpecification.isPast();
+    @DisplayName("Test hasPhase PAST")
+    void hasPhasePast_ShouldReturnPastBookings() {
+        Specification<Booking> spec = BookingSpecification.hasPhase(BookingPhase.PAST, LocalDateTime.now());
 
         List<Booking> bookings = bookingJpaRepository.findAll(spec);
 
@@ -148,15 +206,44 @@ class BookingJpaRepositoryTest {
     }
 
     @Test
-    @DisplayName("Test isFuture")
-    void isFuture_ShouldReturnFutureBookings() {
-        Specification<Booking> spec = BookingSpecification.isFuture();
+    @DisplayName("Test hasPhase FUTURE")
+    void hasPhaseFuture_ShouldReturnFutureBookings() {
+        Specification<Booking> spec = BookingSpecification.hasPhase(BookingPhase.FUTURE, LocalDateTime.now());
 
         List<Booking> bookings = bookingJpaRepository.findAll(spec);
 
         assertThat(bookings).hasSize(1); // Ожидаем одно будущее бронирование
     }
 
+    @Test
+    void markPhases_ShouldAdvanceBookingsWhoseTransitionHasPassed() {
+        LocalDateTime later = LocalDateTime.now().plusDays(2);
+
+        int past = bookingJpaRepository.markEndedAsPast(later);
+        int current = bookingJpaRepository.markStartedAsCurrent(later);
+        entityManager.clear();
+
+        assertThat(past).isZero();
+        assertThat(current).isEqualTo(1);
+        assertThat(bookingJpaRepository.findAll(BookingSpecification.hasPhase(BookingPhase.CURRENT, later)))
+                .extracting(Booking::getPhase)
+                .containsExactly(BookingPhase.CURRENT);
+    }
+
+    @Test
+    void hasPhase_ShouldCountOverdueBookings_BeforeSweep() {
+        LocalDateTime started = LocalDateTime.now().plusDays(2);
+        LocalDateTime ended = LocalDateTime.now().plusDays(6);
+
+        assertThat(bookingJpaRepository.findAll(BookingSpecification.hasPhase(BookingPhase.FUTURE, started)))
+                .isEmpty();
+        assertThat(bookingJpaRepository.findAll(BookingSpecification.hasPhase(BookingPhase.CURRENT, started)))
+                .extracting(Booking::getPhase)
+                .containsExactly(BookingPhase.FUTURE);
+        assertThat(bookingJpaRepository.findAll(BookingSpecification.hasPhase(BookingPhase.PAST, ended)))
+                .hasSize(2);
+    }
+
     @Test
     @DisplayName("Test byOwnerId")
     void byOwnerId_ShouldReturnBookingsByOwner() {
@@ -186,4 +273,23 @@ class BookingJpaRepositoryTest {
 
         assertThat(bookings).hasSize(2); // Ожидаем два бронирования по предмету
     }
+
+    @Test
+    @DisplayName("Test findViews")
+    void findViews_ShouldReturnProjectionPage() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start", "id");
+
+        List<BookingView> firstPage = bookingJpaRepository.findViews(
+                BookingSpecification.byOwnerId(owner.getId()), newestFirst, 0, 1);
+        List<BookingView> secondPage = bookingJpaRepository.findViews(
+                BookingSpecification.byOwnerId(owner.getId()), newestFirst, 1, 1);
+
+        assertThat(firstPage).hasSize(1);
+        assertThat(firstPage.get(0).getStart()).isAfter(LocalDateTime.now());
+        assertThat(firstPage.get(0).getItemId()).isEqualTo(item.getId());
+        assertThat(firstPage.get(0).getItemName()).isEqualTo("Ogromniy Dar");
+        assertThat(firstPage.get(0).getBookerId()).isEqualTo(user.getId());
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getStart()).isBefore(LocalDateTime.now());
+    }
 }
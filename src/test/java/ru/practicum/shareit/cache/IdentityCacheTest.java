@@ -0,0 +1,95 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityCacheTest {
+
+    private IdentityCache<User> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new IdentityCache<>("users", 10, Duration.ofMinutes(1), User::new);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOnce_AndServeCopyFromCache() {
+        User user = user(1L, "John Doe");
+
+        cache.get(1L, id -> load(user));
+        user.setName("Changed without invalidation");
+        Optional<User> cached = cache.get(1L, id -> load(user));
+
+        assertTrue(cached.isPresent());
+        assertEquals("John Doe", cached.get().getName());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void get_ChangesToReturnedHit_ShouldNotLeakIntoCache() {
+        cache.get(1L, id -> load(user(1L, "John Doe")));
+
+        cache.get(1L, id -> load(null)).orElseThrow().setName("Changed by caller");
+        Optional<User> cached = cache.get(1L, id -> load(null));
+
+        assertEquals("John Doe", cached.orElseThrow().getName());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingEntity() {
+        cache.get(1L, id -> load(null));
+        cache.get(1L, id -> load(null));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        cache.get(1L, id -> load(user(1L, "John Doe")));
+
+        cache.invalidate(1L);
+        Optional<User> reloaded = cache.get(1L, id -> load(user(1L, "Jane Doe")));
+
+        assertEquals("Jane Doe", reloaded.orElseThrow().getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void bindTo_ShouldPublishHitAndMissMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(1L, id -> load(user(1L, "John Doe")));
+        cache.get(1L, id -> load(user(1L, "John Doe")));
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    private Optional<User> load(User user) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(user);
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.executor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = ItemController.class, properties = {
+        "shareit.executor.search.pool-size=1",
+        "shareit.executor.search.queue-capacity=0",
+        "shareit.executor.search.timeout=1s",
+        "shareit.executor.stream.pool-size=1",
+        "shareit.executor.stream.queue-capacity=0"
+})
+@Import(ExecutorConfig.class)
+public class ExecutorConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemService itemService;
+
+    @MockBean
+    private ItemMapper itemMapper;
+
+    @MockBean
+    private CommentMapper commentMapper;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void searchExecutor_WhenSaturated_ShouldRejectWithServiceUnavailable() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemService.searchItemsByText(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        MvcResult slowSearch = mockMvc.perform(get("/items/search").param("text", "drill"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.await(5, TimeUnit.SECONDS);
+
+        mockMvc.perform(get("/items/search").param("text", "drill"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        release.countDown();
+        slowSearch.getAsyncResult(5000);
+    }
+
+    @Test
+    void searchExecutor_WhenSearchTimesOut_ShouldReturnServiceUnavailableAndInterruptWorker() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(itemService.searchItemsByText(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+
+        MvcResult slowSearch = mockMvc.perform(get("/items/search").param("text", "drill"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        slowSearch.getAsyncResult(5000);
+
+        mockMvc.perform(asyncDispatch(slowSearch))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void applicationTaskExecutor_WhenSaturated_ShouldRejectTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        applicationTaskExecutor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(1, applicationTaskExecutor.getMaxPoolSize());
+        assertThrows(TaskRejectedException.class, () -> applicationTaskExecutor.execute(() -> { }));
+        release.countDown();
+    }
+}
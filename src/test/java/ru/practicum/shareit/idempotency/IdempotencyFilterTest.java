@@ -0,0 +1,109 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyStore store;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyFilter filter;
+    private SimpleTransactionStatus transaction;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new IdempotencyFilter(store, transactionManager);
+        transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        doAnswer(invocation -> {
+            transaction.setCompleted();
+            return null;
+        }).when(transactionManager).commit(transaction);
+        doAnswer(invocation -> {
+            transaction.setCompleted();
+            return null;
+        }).when(transactionManager).rollback(transaction);
+        when(store.begin(any())).thenReturn(Optional.empty());
+
+        request = new MockHttpServletRequest("POST", "/bookings");
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.addHeader("X-Sharer-User-Id", "1");
+        request.setContent("{\"itemId\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_SuccessfulResponse_ShouldSaveResponseInRequestTransaction() throws Exception {
+        FilterChain chain = (req, res) -> ((HttpServletResponse) res).setStatus(201);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        InOrder inOrder = inOrder(transactionManager, store);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(store).save(any(IdempotentResponse.class));
+        inOrder.verify(transactionManager).commit(transaction);
+        inOrder.verify(store).complete(any(), any(IdempotentResponse.class));
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void doFilter_SaveFailed_ShouldRollBackRequestAndReleaseKey() {
+        FilterChain chain = (req, res) -> ((HttpServletResponse) res).setStatus(201);
+        doThrow(new IllegalStateException("Database is unavailable")).when(store).save(any());
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+
+        verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+        verify(store).complete(any(), isNull());
+    }
+
+    @Test
+    void doFilter_FailedResponse_ShouldRollBackWithoutSaving() throws Exception {
+        FilterChain chain = (req, res) -> ((HttpServletResponse) res).setStatus(404);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(store, never()).save(any());
+        verify(transactionManager).rollback(transaction);
+        verify(store).complete(any(), isNull());
+    }
+
+    @Test
+    void getInputStream_SetReadListener_ShouldReportWholeBody() throws Exception {
+        ReadListener listener = mock(ReadListener.class);
+        FilterChain chain = (req, res) -> req.getInputStream().setReadListener(listener);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).onDataAvailable();
+        inOrder.verify(listener).onAllDataRead();
+        verify(listener, never()).onError(any());
+    }
+}
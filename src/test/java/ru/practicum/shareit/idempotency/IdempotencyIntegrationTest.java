@@ -0,0 +1,168 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+public class IdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    private User booker;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("idempotency-owner@example.com");
+        owner = userService.create(owner);
+
+        booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("idempotency-booker@example.com");
+        booker = userService.create(booker);
+
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item = itemService.create(item, owner.getId());
+    }
+
+    @Test
+    void createBooking_Retried_ShouldReplayOriginalResponseWithoutNewBooking() throws Exception {
+        String body = objectMapper.writeValueAsString(new BookingRequestDto(item.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+
+        MvcResult first = mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(IdempotencyFilter.HEADER, "booking-retry")
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(IdempotencyFilter.HEADER, "booking-retry")
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(first.getResponse().getContentAsString(), true));
+
+        assertEquals(1L, countBookings());
+    }
+
+    @Test
+    void createBooking_SameKeyWithDifferentBody_ShouldReturnUnprocessableEntity() throws Exception {
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(IdempotencyFilter.HEADER, "booking-reused")
+                        .content(objectMapper.writeValueAsString(new BookingRequestDto(item.getId(),
+                                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(IdempotencyFilter.HEADER, "booking-reused")
+                        .content(objectMapper.writeValueAsString(new BookingRequestDto(item.getId(),
+                                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4)))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals(1L, countBookings());
+    }
+
+    @Test
+    void createItem_SameKeyFromAnotherUser_ShouldNotReplay() throws Exception {
+        mockMvc.perform(post("/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(IdempotencyFilter.HEADER, "item-key")
+                        .content(objectMapper.writeValueAsString(new ItemDto(null, "Saw", "Hand saw", true, null))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(IdempotencyFilter.HEADER, "item-key")
+                        .content(objectMapper.writeValueAsString(new ItemDto(null, "Saw", "Hand saw", true, null))))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void createBooking_FailedRequest_ShouldNotBeReplayed() throws Exception {
+        String body = objectMapper.writeValueAsString(new BookingRequestDto(item.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(IdempotencyFilter.HEADER, "own-item")
+                        .content(body))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(IdempotencyFilter.HEADER, "own-item")
+                        .content(body))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void createBooking_TooLongKey_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .header(IdempotencyFilter.HEADER, "k".repeat(256))
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    private long countBookings() {
+        return entityManager.createQuery("SELECT COUNT(b) FROM Booking b", Long.class).getSingleResult();
+    }
+}
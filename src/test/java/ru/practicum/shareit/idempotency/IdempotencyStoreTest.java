@@ -0,0 +1,115 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+import ru.practicum.shareit.idempotency.storage.IdempotentResponseJpaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotentResponseJpaRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyStore store;
+    private IdempotentResponse.Key key;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        store = new IdempotencyStore(repository, transactionManager, 100, Duration.ofHours(1), Duration.ofSeconds(5));
+        key = new IdempotentResponse.Key("key-1", 1L, "/bookings");
+        when(repository.findById(key)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void begin_NewKey_ShouldClaimAndReplayAfterComplete() {
+        assertTrue(store.begin(key).isEmpty());
+
+        IdempotentResponse response = response(LocalDateTime.now());
+        store.save(response);
+        store.complete(key, response);
+
+        assertEquals(Optional.of(response), store.begin(key));
+        verify(repository, times(1)).save(response);
+        verify(repository, times(1)).findById(key);
+    }
+
+    @Test
+    void begin_ConcurrentDuplicate_ShouldWaitForInFlightResult() throws Exception {
+        assertTrue(store.begin(key).isEmpty());
+
+        CompletableFuture<Optional<IdempotentResponse>> duplicate = CompletableFuture.supplyAsync(() -> store.begin(key));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+
+        IdempotentResponse response = response(LocalDateTime.now());
+        store.complete(key, response);
+
+        assertEquals(Optional.of(response), duplicate.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void begin_AfterFailedOriginal_ShouldLetDuplicateExecute() throws Exception {
+        assertTrue(store.begin(key).isEmpty());
+        CompletableFuture<Optional<IdempotentResponse>> duplicate = CompletableFuture.supplyAsync(() -> store.begin(key));
+        Thread.sleep(100);
+
+        store.complete(key, null);
+
+        assertTrue(duplicate.get(5, TimeUnit.SECONDS).isEmpty());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void save_Failed_ShouldPropagateAndLeaveKeyForRetry() {
+        assertTrue(store.begin(key).isEmpty());
+        IdempotentResponse response = response(LocalDateTime.now());
+        when(repository.save(response)).thenThrow(new IllegalStateException("Database is unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> store.save(response));
+        store.complete(key, null);
+
+        assertTrue(store.begin(key).isEmpty());
+    }
+
+    @Test
+    void begin_InFlightTooLong_ShouldThrowConflict() {
+        store = new IdempotencyStore(repository, transactionManager, 100, Duration.ofHours(1), Duration.ofMillis(50));
+        assertTrue(store.begin(key).isEmpty());
+
+        assertThrows(ConflictException.class, () -> store.begin(key));
+    }
+
+    @Test
+    void begin_PersistedResponse_ShouldReplayUnlessExpired() {
+        IdempotentResponse persisted = response(LocalDateTime.now().minusMinutes(5));
+        when(repository.findById(key)).thenReturn(Optional.of(persisted));
+        assertEquals(Optional.of(persisted), store.begin(key));
+
+        IdempotentResponse.Key expiredKey = new IdempotentResponse.Key("key-2", 1L, "/bookings");
+        when(repository.findById(expiredKey)).thenReturn(Optional.of(response(LocalDateTime.now().minusHours(2))));
+        assertTrue(store.begin(expiredKey).isEmpty());
+    }
+
+    private IdempotentResponse response(LocalDateTime created) {
+        return new IdempotentResponse(key.getIdempotencyKey(), key.getUserId(), key.getRequestPath(), "hash", 201,
+                "application/json", "{\"id\":1}", created);
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +11,17 @@ import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserJpaRepository;
 
 import javax.persistence.EntityManager;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +40,9 @@ public class ItemServiceIntegrationTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ItemRequestService itemRequestService;
+
     @Autowired
     private UserJpaRepository userRepository;
 
@@ -62,6 +72,30 @@ public class ItemServiceIntegrationTest {
         assertEquals(savedItem2, entityManager.find(Item.class, savedItem2.getId()));
     }
 
+    @Test
+    void createAll_ShouldInsertItemsInJdbcBatches() {
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(index -> {
+                    Item item = new Item();
+                    item.setName("Item " + index);
+                    item.setAvailable(true);
+                    return item;
+                })
+                .collect(Collectors.toList());
+
+        List<Item> savedItems = itemService.createAll(items, owner.getId());
+        entityManager.flush();
+
+        assertEquals(120, savedItems.stream().map(Item::getId).distinct().count());
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(122, itemService.getItemsByOwner(owner.getId(), 0, 200).size());
+    }
+
     @Test
     void getUserItems_ShouldReturnUserItems() {
         Collection<Item> userItems = itemService.getItemsByOwner(owner.getId(), 0, 10);
@@ -108,6 +142,38 @@ public class ItemServiceIntegrationTest {
         assertEquals(savedItem1.getId(), editedItem.getId());
     }
 
+    @Test
+    void editItem_ShouldIncrementVersionsOfItemAndAnsweredRequest() {
+        User requester = new User();
+        requester.setName("Requester");
+        requester.setEmail("requester@example.com");
+        requester = userService.create(requester);
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request = itemRequestService.create(requester.getId(), request);
+        entityManager.flush();
+        entityManager.clear();
+
+        Item answer = new Item();
+        answer.setName("Drill");
+        answer.setAvailable(true);
+        answer.setRequestId(request.getId());
+        answer = itemService.create(answer, owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(1L, entityManager.find(ItemRequest.class, request.getId()).getVersion());
+        Long itemVersion = entityManager.find(Item.class, answer.getId()).getVersion();
+
+        Item updatedItem = new Item();
+        updatedItem.setName("Cordless drill");
+        itemService.edit(answer.getId(), updatedItem, owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(itemVersion + 1, entityManager.find(Item.class, answer.getId()).getVersion());
+        assertEquals(2L, entityManager.find(ItemRequest.class, request.getId()).getVersion());
+    }
+
     @Test
     void editItem_WithNonOwner_ShouldThrowException() {
         // Create another user who is not the owner
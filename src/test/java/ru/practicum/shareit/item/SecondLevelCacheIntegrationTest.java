@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.CommentJpaRepository;
+import ru.practicum.shareit.item.storage.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserJpaRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет кэш второго уровня на закоммиченных данных, поэтому тест не транзакционный и убирает за собой.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ItemJpaRepository itemRepository;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private CommentJpaRepository commentRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = new User();
+        owner.setName("Cache Owner");
+        owner.setEmail("cache.owner@example.com");
+        owner = userRepository.save(owner);
+
+        item = new Item();
+        item.setName("Cached drill");
+        item.setAvailable(true);
+        item = itemService.create(item, owner.getId());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll(commentRepository.findByItemId(item.getId()));
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void findById_ShouldBeServedFromSecondLevelCache() {
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+
+        assertTrue(statistics.getDomainDataRegionStatistics("item").getHitCount() >= 2);
+        assertTrue(statistics.getEntityLoadCount() <= 1);
+    }
+
+    @Test
+    void findById_ShouldPublishRegionMetrics() {
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+
+        assertTrue(registry.get("hibernate.second.level.cache.requests")
+                .tag("region", "item")
+                .tag("result", "hit")
+                .functionCounter()
+                .count() >= 1);
+    }
+
+    @Test
+    void edit_ShouldUpdateCachedItem() {
+        Item update = new Item();
+        update.setName("Renamed drill");
+        itemService.edit(item.getId(), update, owner.getId());
+
+        assertEquals("Renamed drill", itemRepository.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void findByItemId_ShouldUseQueryCache_AndSeeNewComments() {
+        addComment("First");
+        assertEquals(1, commentRepository.findByItemId(item.getId()).size());
+        assertEquals(1, commentRepository.findByItemId(item.getId()).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        addComment("Second");
+
+        assertEquals(2, commentRepository.findByItemId(item.getId()).size());
+    }
+
+    private void addComment(String text) {
+        Comment comment = new Comment();
+        comment.setText(text);
+        comment.setItem(item);
+        comment.setUser(owner);
+        comment.setCreated(LocalDateTime.now());
+        commentRepository.save(comment);
+    }
+}
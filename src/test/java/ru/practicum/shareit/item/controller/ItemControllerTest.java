@@ -7,8 +7,13 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.executor.ExecutorConfig;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
@@ -17,12 +22,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
+@Import(ExecutorConfig.class)
 public class ItemControllerTest {
 
     @Autowired
@@ -90,6 +97,36 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.name").value("must not be empty"));
     }
 
+    @Test
+    void addItems_ShouldReturnCreated() throws Exception {
+        Mockito.when(itemMapper.toItem(itemDto)).thenReturn(item);
+        Mockito.when(itemMapper.toDto(item)).thenReturn(itemDto);
+        Mockito.when(itemService.createAll(List.of(item, item), 1L)).thenReturn(List.of(item, item));
+
+        mockMvc.perform(post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, itemDto))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value(itemDto.getName()));
+    }
+
+    @Test
+    void addItems_EmptyName_ShouldReturnBadRequest() throws Exception {
+        ItemDto invalidDto = new ItemDto();
+        invalidDto.setName("");
+        invalidDto.setDescription("Item description");
+        invalidDto.setAvailable(true);
+
+        mockMvc.perform(post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, invalidDto))))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(itemService, Mockito.never()).createAll(anyList(), anyLong());
+    }
+
     @Test
     void editItem_ShouldReturnOk() throws Exception {
         itemDto.setName("Updated name");
@@ -126,10 +163,37 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(extendedItemDto.getAvailable()));
     }
 
+    @Test
+    void getItem_ShouldReturnETag() throws Exception {
+        Mockito.when(itemService.getById(anyLong())).thenReturn(item);
+        Mockito.when(itemService.getETag(item, 1L)).thenReturn("item-1-0");
+        Mockito.when(itemService.getExtendedItem(item, 1L)).thenReturn(extendedItem);
+        Mockito.when(itemMapper.toExtendedDto(extendedItem)).thenReturn(extendedItemDto);
+
+        mockMvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"item-1-0\""));
+    }
+
+    @Test
+    void getItem_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        Mockito.when(itemService.getById(anyLong())).thenReturn(item);
+        Mockito.when(itemService.getETag(item, 1L)).thenReturn("item-1-0");
+
+        mockMvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"item-1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(itemService, Mockito.never()).getExtendedItem(any(), anyLong());
+    }
+
     @Test
     void getAllItems_ShouldReturnOk() throws Exception {
         Mockito.when(itemService.getItemsByOwner(anyLong(), anyInt(), anyInt())).thenReturn(Collections.singletonList(item));
-        Mockito.when(itemService.getExtendedItem(any(Item.class), anyLong())).thenReturn(extendedItem);
+        Mockito.when(itemService.getExtendedItems(anyCollection(), anyLong())).thenReturn(List.of(extendedItem));
         Mockito.when(itemMapper.toExtendedDto(extendedItem)).thenReturn(extendedItemDto);
 
         mockMvc.perform(get("/items")
@@ -146,7 +210,7 @@ public class ItemControllerTest {
         Mockito.when(itemService.searchItemsByText(anyString(), anyInt(), anyInt())).thenReturn(Collections.singletonList(item));
         Mockito.when(itemMapper.toDto(item)).thenReturn(itemDto);
 
-        mockMvc.perform(get("/items/search")
+        performAsync(get("/items/search")
                         .param("text", "search text")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
@@ -186,4 +250,11 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.text").value("must not be blank"));
     }
-}
\ No newline at end of file
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
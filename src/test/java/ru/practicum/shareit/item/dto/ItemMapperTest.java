@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.ExtendedItem;
 import ru.practicum.shareit.item.model.Item;
@@ -103,8 +104,8 @@ public class ItemMapperTest {
         comment.setCreated(LocalDateTime.now());
 
         ExtendedItem extendedItem = new ExtendedItem(item);
-        extendedItem.setLastBooking(lastBooking);
-        extendedItem.setNextBooking(nextBooking);
+        extendedItem.setLastBooking(BookingSnapshot.of(lastBooking));
+        extendedItem.setNextBooking(BookingSnapshot.of(nextBooking));
         extendedItem.setComments(List.of(comment));
 
         ExtendedItemDto extendedDto = itemMapper.toExtendedDto(extendedItem);
@@ -116,6 +117,7 @@ public class ItemMapperTest {
 
         assertNotNull(extendedDto.getLastBooking());
         assertEquals(lastBooking.getId(), extendedDto.getLastBooking().getId());
+        assertEquals(user.getId(), extendedDto.getLastBooking().getBookerId());
 
         assertNotNull(extendedDto.getNextBooking());
         assertEquals(nextBooking.getId(), extendedDto.getNextBooking().getId());
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemJpaRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class InMemorySearchIndexTest {
+
+    @Mock
+    private ItemJpaRepository itemRepository;
+
+    @InjectMocks
+    private InMemorySearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchIndex.index(item(1L, "Дрель", "Простая дрель", true));
+        searchIndex.index(item(2L, "Аккумуляторная отвёртка", "Аккумулятор на 20 минут", true));
+        searchIndex.index(item(3L, "Screwdriver", "Poor small driver, drills included", true));
+        searchIndex.index(item(4L, "Drill", "Heavy drill", true));
+        searchIndex.index(item(5L, "Hidden drill", "Not for rent", false));
+    }
+
+    @Test
+    void search_ShouldMatchCaseInsensitivePrefixesAndWordForms() {
+        assertEquals(List.of(1L), ids(searchIndex.search("дРелЬ", 0, 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("дрели", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("аккУМУляторная", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("аккум", 0, 10)));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesFirstAndSkipUnavailable() {
+        assertEquals(List.of(4L, 3L), ids(searchIndex.search("drill", 0, 10)));
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        assertEquals(List.of(3L), ids(searchIndex.search("small drill", 0, 10)));
+        assertTrue(searchIndex.search("small ladder", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldReturnEmptyList_WhenTextIsBlank() {
+        assertTrue(searchIndex.search("", 0, 10).isEmpty());
+        assertTrue(searchIndex.search("  ,. ", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldPageResults() {
+        assertEquals(List.of(3L), ids(searchIndex.search("drill", 1, 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search("drill", 0, 1)));
+    }
+
+    @Test
+    void index_ShouldReplacePreviousVersion() {
+        searchIndex.index(item(4L, "Ladder", "Tall ladder", true));
+        searchIndex.index(item(5L, "Hidden drill", "Now for rent", true));
+
+        assertEquals(List.of(5L, 3L), ids(searchIndex.search("drill", 0, 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search("ladders", 0, 10)));
+    }
+
+    @Test
+    void warmUp_ShouldIndexItemsFromRepository() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(6L, "Tent", "Camping tent", true))));
+
+        searchIndex.warmUp();
+
+        assertEquals(List.of(6L), ids(searchIndex.search("tents", 0, 10)));
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
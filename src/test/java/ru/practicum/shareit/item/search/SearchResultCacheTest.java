@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchResultCacheTest {
+
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOnce_ForSameNormalizedQuery() {
+        search("Drill");
+        search("drill");
+
+        assertEquals(1, loads.get());
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+
+    @Test
+    void invalidate_ShouldEvictQueries_MatchingChangedItem() {
+        search("drill");
+        search("tent");
+
+        cache.invalidate(null, item("Аккумуляторная дрель", "Drilling machine"));
+        search("drill");
+        search("tent");
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldEvictQueries_MatchedBeforeChange() {
+        search("ladder");
+
+        cache.invalidate(item("Ladder", "Aluminium"), item("Stool", "Aluminium"));
+        search("ladder");
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldEvictQueries_WhenAvailabilityFlips() {
+        Item available = item("Tent", "For two");
+        Item unavailable = new Item(available);
+        unavailable.setAvailable(false);
+        search("tent");
+
+        cache.invalidate(available, unavailable);
+        search("tent");
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void bindTo_ShouldReportHitRatio() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        search("drill");
+        search("drill");
+        search("drill");
+        search("drill");
+
+        assertEquals(0.75, registry.get("cache.hit.ratio").tag("cache", "item-search").gauge().value());
+    }
+
+    private void search(String text) {
+        cache.get(text, 0, 10, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+    }
+
+    private static Item item(String name, String description) {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return item;
+    }
+}
@@ -5,18 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.IdentityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.ExtendedItem;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchIndex;
+import ru.practicum.shareit.item.search.SearchResultCache;
 import ru.practicum.shareit.item.storage.CommentJpaRepository;
 import ru.practicum.shareit.item.storage.ItemJpaRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +47,17 @@ class ItemServiceImplTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private ItemRequestService itemRequestService;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Spy
+    private IdentityCache<Item> itemCache = new IdentityCache<>("items", 100, Duration.ofMinutes(1), Item::new);
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(100, Duration.ofMinutes(1));
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -62,6 +83,27 @@ class ItemServiceImplTest {
         assertEquals("Description 1", savedItem.getDescription());
         verify(itemRepository, times(1)).save(newItem);
         verify(userService, times(1)).validate(1L);
+        verify(searchIndex, times(1)).index(newItem);
+    }
+
+    @Test
+    void createAll_ShouldSaveAllItemsAtOnce() {
+        Item first = new Item();
+        first.setName("Item 1");
+        Item second = new Item();
+        second.setName("Item 2");
+        List<Item> items = List.of(first, second);
+
+        when(itemRepository.saveAll(items)).thenReturn(items);
+
+        List<Item> savedItems = itemService.createAll(items, 1L);
+
+        assertEquals(items, savedItems);
+        assertTrue(savedItems.stream().allMatch(item -> item.getOwnerId().equals(1L)));
+        verify(userService, times(1)).validate(1L);
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(searchIndex, times(1)).index(first);
+        verify(searchIndex, times(1)).index(second);
     }
 
     @Test
@@ -84,6 +126,72 @@ class ItemServiceImplTest {
         assertEquals("Updated Item", updatedItem.getName());
         assertEquals("Updated Description", updatedItem.getDescription());
         verify(itemRepository, times(1)).findById(1L);
+        verify(searchIndex, times(1)).index(existingItem);
+        verify(itemCache, times(1)).invalidate(1L);
+        verify(itemRequestService, times(1)).touchRequestsAnsweredBy(1L);
+        verify(searchResultCache, times(1)).invalidate(argThat(before -> before.getName().equals("Item 1")),
+                eq(existingItem));
+    }
+
+    @Test
+    void getETag_ShouldIncludeShownBookings_ForOwner() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwnerId(1L);
+        item.setVersion(2L);
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setVersion(5L);
+        summary.setLastBooking(new BookingSnapshot(7L, 3L, LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+        when(bookingService.getBookingSummaries(List.of(1L))).thenReturn(Map.of(1L, summary));
+
+        assertEquals("item-1-2-7-0", itemService.getETag(item, 1L));
+        assertEquals("item-1-2", itemService.getETag(item, 2L));
+        verify(bookingService, times(1)).getBookingSummaries(List.of(1L));
+    }
+
+    @Test
+    void getETag_ShouldChange_WhenDueSummaryIsRecomputedWithoutNewVersion() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwnerId(1L);
+        item.setVersion(2L);
+        ItemBookingSummary stored = new ItemBookingSummary(1L);
+        stored.setVersion(5L);
+        stored.setNextBooking(new BookingSnapshot(7L, 3L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+        ItemBookingSummary recomputed = new ItemBookingSummary(1L);
+        recomputed.setVersion(5L);
+        recomputed.setLastBooking(stored.getNextBooking());
+        when(bookingService.getBookingSummaries(List.of(1L)))
+                .thenReturn(Map.of(1L, stored))
+                .thenReturn(Map.of(1L, recomputed));
+
+        assertNotEquals(itemService.getETag(item, 1L), itemService.getETag(item, 1L));
+    }
+
+    @Test
+    void searchItemsByText_ShouldUseSearchIndex() {
+        Item item = new Item();
+        item.setId(1L);
+        when(searchIndex.search("drill", 0, 10)).thenReturn(List.of(item));
+
+        assertEquals(List.of(item), itemService.searchItemsByText("drill", 0, 10));
+        verify(itemRepository, never()).searchForItems(any(), any());
+    }
+
+    @Test
+    void searchItemsByText_ShouldCacheResults() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Drill");
+        when(searchIndex.search(anyString(), anyInt(), anyInt())).thenReturn(List.of(item));
+
+        itemService.searchItemsByText("drill", 0, 10);
+        itemService.searchItemsByText("DRILL", 0, 10);
+        itemService.searchItemsByText("drill", 10, 10);
+
+        verify(searchIndex, times(1)).search("drill", 0, 10);
+        verify(searchIndex, never()).search("DRILL", 0, 10);
+        verify(searchIndex, times(1)).search("drill", 10, 10);
     }
 
     @Test
@@ -125,8 +233,7 @@ class ItemServiceImplTest {
         ExtendedItem extendedItem = new ExtendedItem(item);
         extendedItem.setComments(List.of());
 
-        when(bookingService.getLastBooking(anyLong(), anyLong())).thenReturn(Optional.empty());
-        when(bookingService.getNextBooking(anyLong(), anyLong())).thenReturn(Optional.empty());
+        when(bookingService.getBookingSummaries(List.of(1L))).thenReturn(Map.of());
         when(commentRepository.findByItemId(1L)).thenReturn(Collections.emptyList());
 
         ExtendedItem result = itemService.getExtendedItem(item, 1L);
@@ -134,11 +241,68 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertEquals(extendedItem, result);
         assertTrue(result.getComments().isEmpty());
-        verify(bookingService, times(1)).getLastBooking(anyLong(), anyLong());
-        verify(bookingService, times(1)).getNextBooking(anyLong(), anyLong());
+        verify(bookingService, times(1)).getBookingSummaries(List.of(1L));
         verify(commentRepository, times(1)).findByItemId(1L);
     }
 
+    @Test
+    void getExtendedItem_ShouldNotLoadBookings_WhenUserIsNotOwner() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwnerId(1L);
+
+        when(commentRepository.findByItemId(1L)).thenReturn(Collections.emptyList());
+
+        ExtendedItem result = itemService.getExtendedItem(item, 2L);
+
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        verify(bookingService, never()).getBookingSummaries(any());
+    }
+
+    @Test
+    void getExtendedItems_ShouldLoadBookingsAndCommentsInBulk() {
+        Item first = new Item();
+        first.setId(1L);
+        first.setOwnerId(1L);
+        Item second = new Item();
+        second.setId(2L);
+        second.setOwnerId(1L);
+
+        BookingSnapshot lastBooking = new BookingSnapshot(10L, 2L, LocalDateTime.now().minusDays(1), LocalDateTime.now());
+        BookingSnapshot nextBooking = new BookingSnapshot(11L, 2L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2));
+        ItemBookingSummary firstSummary = new ItemBookingSummary(1L);
+        firstSummary.setLastBooking(lastBooking);
+        ItemBookingSummary secondSummary = new ItemBookingSummary(2L);
+        secondSummary.setNextBooking(nextBooking);
+        Comment comment = new Comment();
+        comment.setItem(second);
+
+        when(bookingService.getBookingSummaries(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, firstSummary, 2L, secondSummary));
+        when(commentRepository.findByItemIdIn(List.of(1L, 2L))).thenReturn(List.of(comment));
+
+        List<ExtendedItem> result = itemService.getExtendedItems(List.of(first, second), 1L);
+
+        assertEquals(2, result.size());
+        assertEquals(lastBooking, result.get(0).getLastBooking());
+        assertNull(result.get(0).getNextBooking());
+        assertTrue(result.get(0).getComments().isEmpty());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(nextBooking, result.get(1).getNextBooking());
+        assertEquals(List.of(comment), result.get(1).getComments());
+        verify(commentRepository, never()).findByItemId(anyLong());
+    }
+
+    @Test
+    void getExtendedItems_ShouldSkipQueries_WhenNoItems() {
+        List<ExtendedItem> result = itemService.getExtendedItems(List.of(), 1L);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookingService, commentRepository);
+    }
+
     @Test
     void addComment_ShouldAddComment() {
         Item item = new Item();
@@ -150,7 +314,7 @@ class ItemServiceImplTest {
         Comment comment = new Comment();
         comment.setText("Comment text");
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithVersionIncrementById(1L)).thenReturn(Optional.of(item));
         when(userService.getById(1L)).thenReturn(user);
         when(bookingService.isUserBookedItem(1L, 1L)).thenReturn(true);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
@@ -159,7 +323,7 @@ class ItemServiceImplTest {
 
         assertNotNull(savedComment);
         assertEquals("Comment text", savedComment.getText());
-        verify(itemRepository, times(1)).findById(1L);
+        verify(itemRepository, times(1)).findWithVersionIncrementById(1L);
         verify(userService, times(1)).getById(1L);
         verify(bookingService, times(1)).isUserBookedItem(1L, 1L);
         verify(commentRepository, times(1)).save(comment);
@@ -176,12 +340,12 @@ class ItemServiceImplTest {
         Comment comment = new Comment();
         comment.setText("Comment text");
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithVersionIncrementById(1L)).thenReturn(Optional.of(item));
         when(userService.getById(1L)).thenReturn(user);
         when(bookingService.isUserBookedItem(1L, 1L)).thenReturn(false);
 
         assertThrows(IllegalArgumentException.class, () -> itemService.addComment(1L, 1L, comment));
-        verify(itemRepository, times(1)).findById(1L);
+        verify(itemRepository, times(1)).findWithVersionIncrementById(1L);
         verify(userService, times(1)).getById(1L);
         verify(bookingService, times(1)).isUserBookedItem(1L, 1L);
         verify(commentRepository, times(0)).save(any(Comment.class));
@@ -208,4 +372,19 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemService.getById(1L));
         verify(itemRepository, times(1)).findById(1L);
     }
+
+    @Test
+    void getById_ShouldReturnCachedItem_OnRepeatedCalls() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setAvailable(true);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        itemService.validate(1L);
+        Item cachedItem = itemService.getById(1L);
+
+        assertEquals(true, cachedItem.getAvailable());
+        verify(itemRepository, times(1)).findById(1L);
+    }
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private BookingService target;
+    private BookingService proxy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = mock(BookingService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(BookingService.class);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void time_ShouldTagEachStateSeparately() {
+        when(target.getOwnerBookings(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of());
+
+        proxy.getOwnerBookings(1L, "current", 0, 10);
+        proxy.getOwnerBookings(1L, "ALL", 0, 10);
+        proxy.getOwnerBookings(1L, "ALL", 0, 10);
+
+        assertEquals(1, timer("getOwnerBookings", "CURRENT").count());
+        assertEquals(2, timer("getOwnerBookings", "ALL").count());
+    }
+
+    @Test
+    void time_UnknownState_ShouldNotCreateNewSeriesPerValue() {
+        proxy.getOwnerBookings(1L, "whatever", 0, 10);
+        proxy.getOwnerBookings(1L, "something-else", 0, 10);
+
+        assertEquals(2, timer("getOwnerBookings", "UNKNOWN").count());
+    }
+
+    @Test
+    void time_Failure_ShouldRecordOutcomeAndException() {
+        when(target.getBookingById(anyLong())).thenThrow(new NotFoundException("Booking not found"));
+
+        assertThrows(NotFoundException.class, () -> proxy.getBookingById(1L));
+
+        Timer timer = registry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getBookingById")
+                .tag("state", "none")
+                .tag("outcome", "ERROR")
+                .tag("exception", "NotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    private Timer timer(String method, String state) {
+        return registry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", method)
+                .tag("state", state)
+                .tag("outcome", "SUCCESS")
+                .timer();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingJpaRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+public class SqlQueryStatisticsEndpointTest {
+
+    @Autowired
+    private SqlQueryStatisticsEndpoint endpoint;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+
+    @Test
+    void report_ShouldContainRepositoryQueriesByFingerprint() {
+        endpoint.reset();
+
+        bookingRepository.updateStatusesIfWaiting(List.of(1L, 2L), BookingStatus.APPROVED);
+        bookingRepository.updateStatusesIfWaiting(List.of(3L, 4L, 5L), BookingStatus.REJECTED);
+
+        SqlQueryStatisticsEndpoint.Report report = endpoint.report();
+        assertEquals(200, report.getSlowQueryThresholdMillis());
+        assertTrue(report.getQueries().stream()
+                .anyMatch(q -> q.getFingerprint().startsWith("update booking") && q.getCount() == 2));
+        assertTrue(endpoint.report("slow").getQueries().stream().allMatch(q -> q.getSlowCount() > 0));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.report("fast"));
+    }
+}
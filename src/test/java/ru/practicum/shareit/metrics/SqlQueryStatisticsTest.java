@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlQueryStatisticsTest {
+
+    @Test
+    void fingerprint_ShouldReplaceLiteralsAndCollapseInLists() {
+        assertEquals("select * from booking b where b.item_id in (?...) and b.status=? limit ?",
+                SqlQueryStatistics.fingerprint("select *  from booking b\n where b.item_id in (?, ?,?) "
+                        + "and b.status='WAITING' limit 10"));
+        assertEquals("select b.id from booking0_ b where b.item_id in (?...)",
+                SqlQueryStatistics.fingerprint("select b.id from booking0_ b where b.item_id in (1, 2, 3)"));
+    }
+
+    @Test
+    void record_ShouldAggregateByFingerprint() {
+        SqlQueryStatistics statistics = new SqlQueryStatistics(Duration.ofMillis(100), 10);
+
+        statistics.record("select * from users where id in (?, ?)", 5);
+        statistics.record("select * from users where id in (?, ?, ?)", 150);
+        statistics.record("select * from item where id = ?", 1);
+
+        List<SqlQueryStatistics.QueryStats> snapshot = statistics.snapshot();
+        assertEquals(2, snapshot.size());
+        SqlQueryStatistics.QueryStats users = snapshot.get(0);
+        assertEquals("select * from users where id in (?...)", users.getFingerprint());
+        assertEquals(2, users.getCount());
+        assertEquals(1, users.getSlowCount());
+        assertEquals(155, users.getTotalMillis());
+        assertEquals(150, users.getMaxMillis());
+    }
+
+    @Test
+    void record_OverFingerprintLimit_ShouldAggregateIntoOther() {
+        SqlQueryStatistics statistics = new SqlQueryStatistics(Duration.ofSeconds(1), 1);
+
+        statistics.record("select * from users", 1);
+        statistics.record("select * from item", 1);
+        statistics.record("select * from booking", 1);
+        statistics.record("select * from users", 1);
+
+        List<SqlQueryStatistics.QueryStats> snapshot = statistics.snapshot();
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.stream().anyMatch(q -> q.getFingerprint().equals(SqlQueryStatistics.OTHER)
+                && q.getCount() == 2));
+        assertTrue(snapshot.stream().anyMatch(q -> q.getFingerprint().equals("select * from users")
+                && q.getCount() == 2));
+    }
+}
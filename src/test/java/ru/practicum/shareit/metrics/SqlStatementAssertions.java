@@ -0,0 +1,43 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки бюджета SQL-операторов для интеграционных тестов.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Проверяет, что при обработке HTTP-запроса выполнено не больше {@code budget} SQL-операторов.
+     */
+    public static ResultMatcher sqlStatementsAtMost(int budget) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatementCountingFilter.HEADER);
+            assertNotNull(header, "Response has no " + SqlStatementCountingFilter.HEADER + " header");
+            assertWithinBudget(Integer.parseInt(header), budget);
+        };
+    }
+
+    /**
+     * Выполняет действие и проверяет, что оно выполнило не больше {@code budget} SQL-операторов.
+     */
+    public static void assertSqlStatementsAtMost(SqlStatementCounter counter, int budget, Runnable action) {
+        counter.start();
+        try {
+            action.run();
+        } finally {
+            assertWithinBudget(counter.stop(), budget);
+        }
+    }
+
+    private static void assertWithinBudget(int count, int budget) {
+        assertTrue(count <= budget,
+                () -> "Expected at most " + budget + " SQL statements, but " + count + " were executed");
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.metrics.SqlStatementAssertions.assertSqlStatementsAtMost;
+import static ru.practicum.shareit.metrics.SqlStatementAssertions.sqlStatementsAtMost;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SqlStatementCounter counter;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService requestService;
+
+    private User owner;
+    private User requester;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@example.com");
+        owner = userService.create(owner);
+
+        requester = new User();
+        requester.setName("Requester");
+        requester.setEmail("requester@example.com");
+        requester = userService.create(requester);
+    }
+
+    @Test
+    void getAllItems_ShouldNotIssueStatementsPerItem() throws Exception {
+        ItemRequest request = createRequest();
+        createItem(request.getId());
+        int single = countStatements(get("/items").header("X-Sharer-User-Id", owner.getId()));
+
+        for (int i = 0; i < 4; i++) {
+            createItem(request.getId());
+        }
+        int several = countStatements(get("/items").header("X-Sharer-User-Id", owner.getId()));
+
+        assertEquals(single, several);
+    }
+
+    @Test
+    void getUserRequests_ShouldStayWithinBudget() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createItem(createRequest().getId());
+        }
+        flushAndClear();
+
+        mockMvc.perform(get("/requests").header("X-Sharer-User-Id", requester.getId()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(3));
+    }
+
+    @Test
+    void getUser_ShouldReportCountAndRecordMetric() throws Exception {
+        flushAndClear();
+
+        mockMvc.perform(get("/users/{userId}", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatementCountingFilter.HEADER))
+                .andExpect(sqlStatementsAtMost(1));
+
+        assertTrue(registry.get(SqlStatementCountingFilter.METRIC_NAME)
+                .tag("uri", "/users/{userId}")
+                .summary()
+                .count() > 0);
+    }
+
+    @Test
+    void getUserBookings_ShouldCountStatementsOfExecutorThread() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String count = mockMvc.perform(asyncDispatch(result))
+                .andReturn()
+                .getResponse()
+                .getHeader(SqlStatementCountingFilter.HEADER);
+
+        assertTrue(Integer.parseInt(count) > 0);
+        assertTrue(registry.get(SqlStatementCountingFilter.METRIC_NAME)
+                .tag("uri", "/bookings")
+                .summary()
+                .count() > 0);
+    }
+
+    @Test
+    void assertSqlStatementsAtMost_ShouldFailWhenBudgetExceeded() {
+        flushAndClear();
+
+        assertThrows(AssertionError.class, () -> assertSqlStatementsAtMost(counter, 0,
+                () -> userService.getUsers(0L, 10)));
+        assertSqlStatementsAtMost(counter, 1, () -> userService.getUsers(0L, 10));
+    }
+
+    private int countStatements(RequestBuilder request) throws Exception {
+        flushAndClear();
+        String count = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(SqlStatementCountingFilter.HEADER);
+        return Integer.parseInt(count);
+    }
+
+    private ItemRequest createRequest() {
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a drill");
+        return requestService.create(requester.getId(), request);
+    }
+
+    private void createItem(Long requestId) {
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setRequestId(requestId);
+        itemService.create(item, owner.getId());
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
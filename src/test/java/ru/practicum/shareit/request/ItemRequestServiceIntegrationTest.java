@@ -16,6 +16,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -72,6 +73,32 @@ public class ItemRequestServiceIntegrationTest {
         assertEquals(item.getId(), extendedItemRequest.getResponses().get(0).getResponseItem().getId());
     }
 
+    @Test
+    void givenSeveralRequests_whenGettingExtendedRequests_thenResponsesGroupedByRequest() {
+        ItemRequest otherRequest = createItemRequest(requester);
+        User owner = createUser("Jan Jack De Jack", "Jack@example.com");
+        Item first = new Item();
+        first.setName("Big Dar");
+        first.setAvailable(true);
+        first.setRequestId(itemRequest.getId());
+        first = itemService.create(first, owner.getId());
+        Item second = new Item();
+        second.setName("Small Dar");
+        second.setAvailable(true);
+        second.setRequestId(itemRequest.getId());
+        second = itemService.create(second, owner.getId());
+
+        List<ExtendedItemRequest> extendedRequests =
+                itemRequestService.getExtendedRequests(List.of(itemRequest, otherRequest));
+
+        assertEquals(2, extendedRequests.size());
+        assertEquals(List.of(first.getId(), second.getId()), extendedRequests.get(0).getResponses().stream()
+                .map(response -> response.getResponseItem().getId())
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(0, extendedRequests.get(1).getResponses().size());
+    }
+
     @Test
     void givenUserRequestsExist_whenGettingUserRequests_thenUserRequestsReturned() {
         List<ItemRequest> userRequests = itemRequestService.getUserRequests(requester.getId());
@@ -68,6 +68,7 @@ public class ItemRequestControllerTest {
         Mockito.when(requestMapper.toDto(request)).thenReturn(responseDto);
         Mockito.when(requestService.getUserRequests(anyLong())).thenReturn(userRequests);
         Mockito.when(requestService.getExtendedRequest(any(ItemRequest.class))).thenReturn(extendedItemRequest);
+        Mockito.when(requestService.getExtendedRequests(anyList())).thenReturn(List.of(extendedItemRequest));
         Mockito.when(requestMapper.toWithResponsesDto(any(ExtendedItemRequest.class))).thenReturn(withResponsesDto);
         Mockito.when(requestService.getAllRequests(anyLong(), anyInt(), anyInt())).thenReturn(allRequests);
     }
@@ -90,7 +91,8 @@ public class ItemRequestControllerTest {
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(1));
     }
 
     @Test
@@ -101,6 +103,33 @@ public class ItemRequestControllerTest {
                         .param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getRequestById_ShouldReturnOk() throws Exception {
+        request.setId(1L);
+        request.setVersion(0L);
+        Mockito.when(requestService.getById(1L, 1L)).thenReturn(request);
+
+        mockMvc.perform(get("/requests/{requestId}", 1)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"request-1-0\""));
+    }
+
+    @Test
+    void getRequestById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        request.setId(1L);
+        request.setVersion(0L);
+        Mockito.when(requestService.getById(1L, 1L)).thenReturn(request);
+
+        mockMvc.perform(get("/requests/{requestId}", 1)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"request-1-0\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(requestService, Mockito.never()).getExtendedRequest(any());
     }
 }
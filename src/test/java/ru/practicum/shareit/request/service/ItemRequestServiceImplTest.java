@@ -71,7 +71,7 @@ class ItemRequestServiceImplTest {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setId(1L);
 
-        when(requestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
+        when(requestRepository.findWithVersionIncrementById(1L)).thenReturn(Optional.of(itemRequest));
         when(responseRepository.save(any(ItemResponse.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ItemResponse response = itemRequestService.createResponse(item, 1L);
@@ -79,7 +79,7 @@ class ItemRequestServiceImplTest {
         assertNotNull(response);
         assertEquals(item, response.getResponseItem());
         assertEquals(itemRequest, response.getRequest());
-        verify(requestRepository, times(1)).findById(1L);
+        verify(requestRepository, times(1)).findWithVersionIncrementById(1L);
         verify(responseRepository, times(1)).save(any(ItemResponse.class));
     }
 
@@ -88,10 +88,10 @@ class ItemRequestServiceImplTest {
         Item item = new Item();
         item.setId(1L);
 
-        when(requestRepository.findById(1L)).thenReturn(Optional.empty());
+        when(requestRepository.findWithVersionIncrementById(1L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemRequestService.createResponse(item, 1L));
-        verify(requestRepository, times(1)).findById(1L);
+        verify(requestRepository, times(1)).findWithVersionIncrementById(1L);
     }
 
     @Test
@@ -111,6 +111,32 @@ class ItemRequestServiceImplTest {
         verify(responseRepository, times(1)).findAllByRequest_Id(1L);
     }
 
+    @Test
+    void getExtendedRequests_ShouldLoadResponsesInOneQuery() {
+        ItemRequest first = new ItemRequest();
+        first.setId(1L);
+        ItemRequest second = new ItemRequest();
+        second.setId(2L);
+        ItemResponse response = new ItemResponse();
+        response.setRequest(second);
+        response.setResponseItem(new Item());
+
+        when(responseRepository.findAllByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(response));
+
+        List<ExtendedItemRequest> extendedRequests = itemRequestService.getExtendedRequests(List.of(first, second));
+
+        assertEquals(2, extendedRequests.size());
+        assertTrue(extendedRequests.get(0).getResponses().isEmpty());
+        assertEquals(List.of(response), extendedRequests.get(1).getResponses());
+        verify(responseRepository, never()).findAllByRequest_Id(anyLong());
+    }
+
+    @Test
+    void getExtendedRequests_ShouldSkipQuery_WhenNoRequests() {
+        assertTrue(itemRequestService.getExtendedRequests(List.of()).isEmpty());
+        verifyNoInteractions(responseRepository);
+    }
+
     @Test
     void getUserRequests_ShouldReturnUserRequests() {
         User user = new User();
@@ -11,6 +11,9 @@ import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserJpaRepository;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -97,4 +100,47 @@ public class UserServiceIntegrationTest {
         // Then
         assertFalse(userRepository.existsById(createdUser.getId()), "User should be deleted");
     }
+
+    @Test
+    void getUsers_ShouldSeekPastAfterId() {
+        // Given
+        List<User> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            created.add(userService.create(user));
+        }
+
+        // When
+        List<User> firstPage = userService.getUsers(0L, 2);
+        List<User> secondPage = userService.getUsers(firstPage.get(1).getId(), 2);
+
+        // Then
+        assertEquals(List.of(created.get(0).getId(), created.get(1).getId()),
+                firstPage.stream().map(User::getId).collect(Collectors.toList()));
+        assertEquals(1, secondPage.size());
+        assertEquals(created.get(2).getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void forEachUser_ShouldVisitAllUsersWithoutManagingThem() {
+        // Given
+        User user = new User();
+        user.setName("John Doe");
+        user.setEmail("john@example.com");
+        User createdUser = userService.create(user);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<User> visited = new ArrayList<>();
+        userService.forEachUser(visited::add);
+
+        // Then
+        assertEquals(1, visited.size());
+        assertEquals(createdUser.getId(), visited.get(0).getId());
+        assertEquals(createdUser.getEmail(), visited.get(0).getEmail());
+        assertFalse(entityManager.contains(visited.get(0)), "Streamed user should not be managed");
+    }
 }
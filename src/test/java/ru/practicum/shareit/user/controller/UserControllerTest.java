@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -16,6 +17,8 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -110,6 +113,33 @@ public class UserControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    void getUser_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        user.setId(1L);
+        user.setVersion(3L);
+        Mockito.when(userService.getById(anyLong())).thenReturn(user);
+
+        mockMvc.perform(get("/users/{userId}", 1)
+                        .header("If-None-Match", "\"user-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"user-1-3\""));
+
+        Mockito.verify(userMapper, Mockito.never()).toDto(any());
+    }
+
+    @Test
+    void getUser_ShouldReturnOk_WhenETagIsStale() throws Exception {
+        user.setId(1L);
+        user.setVersion(4L);
+        Mockito.when(userService.getById(anyLong())).thenReturn(user);
+        Mockito.when(userMapper.toDto(user)).thenReturn(userDto);
+
+        mockMvc.perform(get("/users/{userId}", 1)
+                        .header("If-None-Match", "\"user-1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"user-1-4\""));
+    }
+
     @Test
     void deleteUser_ShouldReturnOk() throws Exception {
         mockMvc.perform(delete("/users/{userId}", 1))
@@ -117,13 +147,57 @@ public class UserControllerTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnOk() throws Exception {
-        Mockito.when(userService.getAllUsers()).thenReturn(Collections.singletonList(user));
+    void getAllUsers_ShouldStreamJsonArray() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(user);
+            action.accept(user);
+            return null;
+        }).when(userService).forEachUser(any());
+        Mockito.when(userMapper.toDto(user)).thenReturn(userDto);
+
+        MvcResult result = mockMvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].email").value(userDto.getEmail()));
+    }
+
+    @Test
+    void getUsers_FullPage_ShouldReturnNextCursor() throws Exception {
+        user.setId(7L);
+        Mockito.when(userService.getUsers(3L, 1)).thenReturn(List.of(user));
         Mockito.when(userMapper.toDto(user)).thenReturn(userDto);
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(get("/users")
+                        .param("after", "3")
+                        .param("size", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(header().string("X-Next-Cursor", "7"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getUsers_PartialPage_ShouldNotReturnNextCursor() throws Exception {
+        Mockito.when(userService.getUsers(0L, 10)).thenReturn(Collections.singletonList(user));
+        Mockito.when(userMapper.toDto(user)).thenReturn(userDto);
+
+        mockMvc.perform(get("/users")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getUsers_TooLargePage_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("size", "1000"))
+                .andExpect(status().isBadRequest());
     }
 }
@@ -2,13 +2,14 @@ package ru.practicum.shareit.user.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.cache.IdentityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserJpaRepository;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,12 +21,13 @@ class UserServiceImplTest {
     @Mock
     private UserJpaRepository userRepository;
 
-    @InjectMocks
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserServiceImpl(userRepository,
+                new IdentityCache<>("users", 100, Duration.ofMinutes(1), User::new));
     }
 
     @Test
@@ -113,17 +115,62 @@ class UserServiceImplTest {
 
     @Test
     void validate_ShouldNotThrowException_WhenUserExists() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         assertDoesNotThrow(() -> userService.validate(1L));
-        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(1)).findById(1L);
     }
 
     @Test
     void validate_ShouldThrowNotFoundException_WhenUserNotFound() {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> userService.validate(1L));
-        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getById_ShouldUseCache_AfterValidate() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("John Doe");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.validate(1L);
+        User cachedUser = userService.getById(1L);
+
+        assertEquals("John Doe", cachedUser.getName());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void edit_ShouldInvalidateCachedUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("John Doe");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userService.getById(1L);
+
+        User newInfo = new User();
+        newInfo.setName("Jane Doe");
+        userService.edit(1L, newInfo);
+
+        assertEquals("Jane Doe", userService.getById(1L).getName());
+        verify(userRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void delete_ShouldInvalidateCachedUser() {
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userService.getById(1L);
+
+        userService.delete(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> userService.getById(1L));
     }
 }